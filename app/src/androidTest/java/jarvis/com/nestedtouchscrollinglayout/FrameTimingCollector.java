@@ -0,0 +1,90 @@
+package jarvis.com.nestedtouchscrollinglayout;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import java.util.Arrays;
+
+/**
+ * 采集窗口内每帧 TOTAL_DURATION，输出帧数、超 16ms 帧数与 p50 / p90 / p99（ms）
+ */
+final class FrameTimingCollector {
+
+    private static final long FRAME_DEADLINE_NANOS = 16_666_667L;
+
+    private static final int MAX_FRAMES = 4096;
+
+    private final long[] mDurations = new long[MAX_FRAMES];
+
+    private int mCount;
+
+    private Window mWindow;
+
+    private HandlerThread mThread;
+
+    private Object mListener;
+
+    void start(Activity activity) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+        mCount = 0;
+        mWindow = activity.getWindow();
+        mThread = new HandlerThread("FrameTimingCollector");
+        mThread.start();
+        Window.OnFrameMetricsAvailableListener listener = new Window.OnFrameMetricsAvailableListener() {
+            @Override
+            public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+                synchronized (mDurations) {
+                    if (mCount < MAX_FRAMES) {
+                        mDurations[mCount++] = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+                    }
+                }
+            }
+        };
+        mListener = listener;
+        mWindow.addOnFrameMetricsAvailableListener(listener, new Handler(mThread.getLooper()));
+    }
+
+    String stop() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || mWindow == null) {
+            return "frames unavailable";
+        }
+        mWindow.removeOnFrameMetricsAvailableListener((Window.OnFrameMetricsAvailableListener) mListener);
+        mThread.quitSafely();
+        mWindow = null;
+
+        long[] sorted;
+        synchronized (mDurations) {
+            sorted = Arrays.copyOf(mDurations, mCount);
+        }
+        if (sorted.length == 0) {
+            return "frames=0";
+        }
+        Arrays.sort(sorted);
+        int jank = 0;
+        for (long duration : sorted) {
+            if (duration > FRAME_DEADLINE_NANOS) {
+                jank++;
+            }
+        }
+        return "frames=" + sorted.length
+                + ", jank=" + jank
+                + ", p50=" + toMillis(percentile(sorted, 50))
+                + "ms, p90=" + toMillis(percentile(sorted, 90))
+                + "ms, p99=" + toMillis(percentile(sorted, 99)) + "ms";
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(sorted.length * percent / 100f) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String toMillis(long nanos) {
+        return String.valueOf(nanos / 1000 / 1000f);
+    }
+}
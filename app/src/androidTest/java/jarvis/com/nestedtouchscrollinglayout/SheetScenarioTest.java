@@ -0,0 +1,135 @@
+package jarvis.com.nestedtouchscrollinglayout;
+
+import android.app.Activity;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import jarvis.com.library.NestedTouchScrollingLayout;
+
+/**
+ * demo 页面端到端性能场景：启动、打开 sheet、anchor 间拖拽、fling 交接给子 View、ViewPager 横滑，
+ * 帧耗时与分阶段 jank 输出到 logcat（tag NTSLScenario）
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class SheetScenarioTest {
+
+    private final FrameTimingCollector mFrameTiming = new FrameTimingCollector();
+
+    private Activity mActivity;
+
+    @After
+    public void tearDown() {
+        if (mActivity != null) {
+            mActivity.finish();
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        }
+    }
+
+    @Test
+    public void bottomSheet_openAndDragBetweenAnchors() {
+        mActivity = SheetScenarios.launch(BottomSheetActivity.class);
+        final NestedTouchScrollingLayout layout = prepare(R.id.wrapper);
+        SheetScenarios.settle();
+
+        mFrameTiming.start(mActivity);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                layout.expand();
+            }
+        });
+        SheetScenarios.settle();
+
+        View root = mActivity.getWindow().getDecorView();
+        float x = root.getWidth() / 2f;
+        float height = root.getHeight();
+        SheetScenarios.drag(x, height * 0.2f, x, height * 0.6f, 400);
+        SheetScenarios.settle();
+        SheetScenarios.drag(x, height * 0.6f, x, height * 0.2f, 400);
+        SheetScenarios.settle();
+        report("bottomSheet_openAndDragBetweenAnchors", layout);
+    }
+
+    @Test
+    public void appbarLayout_flingIntoChild() {
+        mActivity = SheetScenarios.launch(AppbarLayoutActivity.class);
+        runFlingScenario("appbarLayout_flingIntoChild", prepare(R.id.wrapper));
+    }
+
+    @Test
+    public void recyclerView_flingIntoChild() {
+        mActivity = SheetScenarios.launch(RecyclerViewActivity.class);
+        runFlingScenario("recyclerView_flingIntoChild", prepare(R.id.wrapper));
+    }
+
+    @Test
+    public void webViewAndRecyclerView_flingIntoChild() {
+        mActivity = SheetScenarios.launch(WebViewAndRecyclerViewActivity.class);
+        runFlingScenario("webViewAndRecyclerView_flingIntoChild", prepare(R.id.wrapper));
+    }
+
+    @Test
+    public void viewPager_horizontalSwipes() {
+        mActivity = SheetScenarios.launch(ViewPagerActivity.class);
+        SheetScenarios.settle();
+
+        View root = mActivity.getWindow().getDecorView();
+        float y = root.getHeight() / 2f;
+        float width = root.getWidth();
+
+        mFrameTiming.start(mActivity);
+        for (int i = 0; i < 3; i++) {
+            SheetScenarios.swipeHorizontal(y, width * 0.9f, width * 0.1f);
+            SheetScenarios.settle();
+        }
+        for (int i = 0; i < 3; i++) {
+            SheetScenarios.swipeHorizontal(y, width * 0.1f, width * 0.9f);
+            SheetScenarios.settle();
+        }
+        report("viewPager_horizontalSwipes", null);
+    }
+
+    /**
+     * 先把 sheet 拖下再上滑 fling，使手势从 sheet 交接给可滚动子 View
+     */
+    private void runFlingScenario(String name, NestedTouchScrollingLayout layout) {
+        SheetScenarios.settle();
+        View root = mActivity.getWindow().getDecorView();
+        float x = root.getWidth() / 2f;
+        float height = root.getHeight();
+
+        mFrameTiming.start(mActivity);
+        for (int i = 0; i < 3; i++) {
+            SheetScenarios.drag(x, height * 0.5f, x, height * 0.7f, 200);
+            SheetScenarios.fling(x, height * 0.7f, height * 0.2f);
+            SheetScenarios.settle();
+        }
+        report(name, layout);
+    }
+
+    private NestedTouchScrollingLayout prepare(int id) {
+        final NestedTouchScrollingLayout layout = mActivity.findViewById(id);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                layout.setJankMonitorEnabled(true);
+            }
+        });
+        return layout;
+    }
+
+    private void report(String name, NestedTouchScrollingLayout layout) {
+        Log.i(SheetScenarios.TAG, name + " " + mFrameTiming.stop());
+        if (layout != null) {
+            Log.i(SheetScenarios.TAG, name + " " + layout.getJankStats());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package jarvis.com.nestedtouchscrollinglayout;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+import android.view.MotionEvent;
+
+/**
+ * 场景脚本：启动计时与经由 Instrumentation 注入的拖拽 / fling / 横滑
+ */
+final class SheetScenarios {
+
+    static final String TAG = "NTSLScenario";
+
+    private static final long FRAME_MILLIS = 8;
+
+    private SheetScenarios() {
+    }
+
+    /**
+     * 启动页面并等待首帧后主线程空闲，记录启动耗时
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Activity> T launch(Class<T> activityClass) {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Intent intent = new Intent(Intent.ACTION_MAIN)
+                .setClass(instrumentation.getTargetContext(), activityClass)
+                .putExtra(BaseActivity.EXTRA_LOCAL_PAGES, true)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        long start = SystemClock.uptimeMillis();
+        T activity = (T) instrumentation.startActivitySync(intent);
+        instrumentation.waitForIdleSync();
+        Log.i(TAG, activityClass.getSimpleName() + " startup=" + (SystemClock.uptimeMillis() - start) + "ms");
+        return activity;
+    }
+
+    /**
+     * 匀速拖动，每 8ms 一个 MOVE，按 eventTime 实时注入，事件分布在真实的 vsync 上
+     */
+    static void drag(float fromX, float fromY, float toX, float toY, long durationMillis) {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        long downTime = SystemClock.uptimeMillis();
+        send(instrumentation, downTime, downTime, MotionEvent.ACTION_DOWN, fromX, fromY);
+        int steps = (int) Math.max(1, durationMillis / FRAME_MILLIS);
+        for (int i = 1; i <= steps; i++) {
+            float fraction = (float) i / steps;
+            send(instrumentation, downTime, downTime + i * FRAME_MILLIS, MotionEvent.ACTION_MOVE,
+                    fromX + (toX - fromX) * fraction, fromY + (toY - fromY) * fraction);
+        }
+        send(instrumentation, downTime, downTime + steps * FRAME_MILLIS, MotionEvent.ACTION_UP, toX, toY);
+    }
+
+    static void fling(float x, float fromY, float toY) {
+        drag(x, fromY, x, toY, 80);
+    }
+
+    static void swipeHorizontal(float y, float fromX, float toX) {
+        drag(fromX, y, toX, y, 160);
+    }
+
+    /**
+     * 等待回弹动画与子 View 惯性结束
+     */
+    static void settle() {
+        SystemClock.sleep(600);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    private static void send(Instrumentation instrumentation, long downTime, long eventTime, int action, float x, float y) {
+        long now = SystemClock.uptimeMillis();
+        if (eventTime > now) {
+            // sendPointerSync 不会等待 eventTime，连续注入会让整段手势挤进一两帧
+            SystemClock.sleep(eventTime - now);
+        }
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+        instrumentation.sendPointerSync(event);
+        event.recycle();
+    }
+}
@@ -118,6 +118,7 @@ public class AppbarLayoutActivity extends BaseActivity {
         });
 
         mNestedTouchScrollingLayout.setSheetDirection(NestedTouchScrollingLayout.SheetDirection.BOTTOM);
+        mNestedTouchScrollingLayout.setScrimColor(0x4D000000);
         mNestedTouchScrollingLayout
                 .post(new Runnable() {
                     @Override
@@ -15,6 +15,14 @@ import android.view.View;
  */
 
 public class BaseActivity extends AppCompatActivity {
+
+    /**
+     * 为 true 时 WebView 加载本地 assets 页面，性能场景无需网络
+     */
+    public static final String EXTRA_LOCAL_PAGES = "local_pages";
+
+    public static final String LOCAL_PAGE_URL = "file:///android_asset/sheet_page.html";
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -24,4 +32,8 @@ public class BaseActivity extends AppCompatActivity {
         ActionBar actionBar = getSupportActionBar();
         actionBar.hide();
     }
+
+    protected String resolvePageUrl(String url) {
+        return getIntent().getBooleanExtra(EXTRA_LOCAL_PAGES, false) ? LOCAL_PAGE_URL : url;
+    }
 }
@@ -48,28 +48,13 @@ public class BottomSheetActivity extends BaseActivity {
             }
         });
 
-        mContainerRecycler = findViewById(R.id.container_rv);
-        mContainerRecycler.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, false));
-        mContainerRecycler.setAdapter(new InnerAdapter(this, 0x9966CC));
-        mContainerRecycler.addItemDecoration(new RecyclerView.ItemDecoration() {
-            @Override
-            public void onDraw(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
-                super.onDraw(c, parent, state);
-            }
-
-            @Override
-            public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
-                super.onDrawOver(c, parent, state);
-            }
-
+        mNestedTouchScrollingLayout = findViewById(R.id.wrapper);
+        mNestedTouchScrollingLayout.setLazyContent(R.layout.sheet_bottom_content, new NestedTouchScrollingLayout.OnContentInflatedListener() {
             @Override
-            public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
-                super.getItemOffsets(outRect, view, parent, state);
-                outRect.bottom = 30;
+            public void onContentInflated(View content) {
+                setupContainer((RecyclerView) content);
             }
         });
-
-        mNestedTouchScrollingLayout = findViewById(R.id.wrapper);
         mNestedTouchScrollingLayout.registerNestScrollChildCallback(new NestedTouchScrollingLayout.INestChildScrollChange() {
             @Override
             public void onNestChildScrollChange(float deltaY) {
@@ -121,6 +106,10 @@ public class BottomSheetActivity extends BaseActivity {
         });
 
         mNestedTouchScrollingLayout.setSheetDirection(NestedTouchScrollingLayout.SheetDirection.BOTTOM);
+        mNestedTouchScrollingLayout.setScrimColor(0x4D000000);
+        mNestedTouchScrollingLayout.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mNestedTouchScrollingLayout.prewarm(true);
+        mNestedTouchScrollingLayout.setVisibleHeightMeasureEnabled(true);
         mNestedTouchScrollingLayout
                 .post(new Runnable() {
                      @Override
@@ -130,6 +119,29 @@ public class BottomSheetActivity extends BaseActivity {
                  });
     }
 
+    private void setupContainer(RecyclerView content) {
+        mContainerRecycler = content;
+        mContainerRecycler.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, false));
+        mContainerRecycler.setAdapter(new InnerAdapter(this, 0x9966CC));
+        mContainerRecycler.addItemDecoration(new RecyclerView.ItemDecoration() {
+            @Override
+            public void onDraw(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+                super.onDraw(c, parent, state);
+            }
+
+            @Override
+            public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+                super.onDrawOver(c, parent, state);
+            }
+
+            @Override
+            public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+                super.getItemOffsets(outRect, view, parent, state);
+                outRect.bottom = 30;
+            }
+        });
+    }
+
     class ContainerAdapter extends RecyclerView.Adapter<ContainerViewHolder> {
 
         private Context mContext;
@@ -61,6 +61,8 @@ public class RecyclerViewActivity extends BaseActivity  {
         });
 
         mNestedTouchScrollingLayout = findViewById(R.id.wrapper);
+        mNestedTouchScrollingLayout.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mNestedTouchScrollingLayout.setOverscrollReplacesTranslation(true);
 
         mNestedTouchScrollingLayout.registerNestScrollChildCallback(new NestedTouchScrollingLayout.INestChildScrollChange() {
             @Override
@@ -69,13 +71,8 @@ public class RecyclerViewActivity extends BaseActivity  {
             }
 
             @Override
-            public void onNestChildScrollRelease(final float deltaY, final int velocityY) {
-                mNestedTouchScrollingLayout.recover(0, new Runnable() {
-                    @Override
-                    public void run() {
-                        Log.i("NestedTouchScrollingLayout ---> ", "deltaY : " + deltaY + " velocityY : " + velocityY);
-                    }
-                });
+            public void onNestChildScrollRelease(float deltaY, int velocityY) {
+                Log.i("NestedTouchScrollingLayout ---> ", "deltaY : " + deltaY + " velocityY : " + velocityY);
             }
 
             @Override
@@ -31,7 +31,7 @@ public class ViewPagerActivity extends BaseActivity {
         List<Fragment> list = new ArrayList<>();
 
         Bundle bundle1 = new Bundle();
-        bundle1.putString(WebViewFragment.URL, "http://m.meten.com/xxl/adult.html");
+        bundle1.putString(WebViewFragment.URL, resolvePageUrl("http://m.meten.com/xxl/adult.html"));
         bundle1.putInt(WebViewFragment.POSITION, 0);
         Fragment fg1 = WebViewFragment.newInstance(bundle1);
 
@@ -41,7 +41,7 @@ public class ViewPagerActivity extends BaseActivity {
 
 
         Bundle bundle3 = new Bundle();
-        bundle3.putString(WebViewFragment.URL, "http://blood.sdo.com/web3/mobile/");
+        bundle3.putString(WebViewFragment.URL, resolvePageUrl("http://blood.sdo.com/web3/mobile/"));
         bundle3.putInt(WebViewFragment.POSITION, 0);
         Fragment fg3 = WebViewFragment.newInstance(bundle3);
 
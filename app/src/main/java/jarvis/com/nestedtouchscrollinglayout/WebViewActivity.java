@@ -34,9 +34,13 @@ public class WebViewActivity extends BaseActivity {
         initWebSettings();
         initWebViewClient();
 
-        mWebView.loadUrl("https://www.baidu.com/");
+        mWebView.loadUrl(resolvePageUrl("https://www.baidu.com/"));
 
         mContainer = findViewById(R.id.wrapper);
+        mContainer.setWebViewPauseMode(NestedTouchScrollingLayout.WebViewPauseMode.RENDER);
+        mContainer.setDragSnapshotEnabled(true);
+        mContainer.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mContainer.setOverscrollReplacesTranslation(true);
 
         mContainer.registerNestScrollChildCallback(new NestedTouchScrollingLayout.INestChildScrollChange() {
             @Override
@@ -46,7 +50,7 @@ public class WebViewActivity extends BaseActivity {
 
             @Override
             public void onNestChildScrollRelease(float deltaY, int velocityY) {
-                mContainer.recover(0);
+
             }
 
             @Override
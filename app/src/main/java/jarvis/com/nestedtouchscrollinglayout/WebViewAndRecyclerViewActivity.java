@@ -53,7 +53,7 @@ public class WebViewAndRecyclerViewActivity extends BaseActivity  {
         mWebView = findViewById(R.id.container_wb);
         initWebSettings();
         initWebViewClient();
-        mWebView.loadUrl("https://www.baidu.com/");
+        mWebView.loadUrl(resolvePageUrl("https://www.baidu.com/"));
 
         mContainerRecycler = findViewById(R.id.container_rv);
         mContainerRecycler.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, false));
@@ -49,6 +49,8 @@ public class RecyclerViewFragment extends BaseChildFragment {
         View view = inflater.inflate(R.layout.fragment_recyclerview, container, false);
         mContainerRecycler = view.findViewById(R.id.container_rv);
         mNestedTouchScrollingLayout = view.findViewById(R.id.fragment_wrapper);
+        mNestedTouchScrollingLayout.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mNestedTouchScrollingLayout.setOverscrollReplacesTranslation(true);
         return view;
     }
 
@@ -64,7 +66,7 @@ public class RecyclerViewFragment extends BaseChildFragment {
 
             @Override
             public void onNestChildScrollRelease(float deltaY, int velocityY) {
-                mNestedTouchScrollingLayout.recover(0, null, 300);
+
             }
 
             @Override
@@ -47,6 +47,9 @@ public class WebViewFragment extends BaseChildFragment {
         View view = inflater.inflate(R.layout.fragment_webview, container, false);
         mWebView = view.findViewById(R.id.web_view);
         mNestedTouchScrollingLayout = view.findViewById(R.id.fragment_wrapper);
+        mNestedTouchScrollingLayout.setWebViewPauseMode(NestedTouchScrollingLayout.WebViewPauseMode.RENDER);
+        mNestedTouchScrollingLayout.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mNestedTouchScrollingLayout.setOverscrollReplacesTranslation(true);
         return view;
     }
 
@@ -62,7 +65,7 @@ public class WebViewFragment extends BaseChildFragment {
 
             @Override
             public void onNestChildScrollRelease(float deltaY, int velocityY) {
-                mNestedTouchScrollingLayout.recover(0);
+
             }
 
             @Override
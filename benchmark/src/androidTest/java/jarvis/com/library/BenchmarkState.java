@@ -0,0 +1,78 @@
+package jarvis.com.library;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * 简易 microbenchmark 计时：预热后分批测量，取各批 ns/op 中位数，并统计单次操作的平均分配次数
+ */
+final class BenchmarkState {
+
+    private static final String TAG = "NTSLBenchmark";
+
+    private static final long WARMUP_NANOS = 500_000_000L;
+
+    private static final int BATCHES = 30;
+
+    private static final int OPS_PER_BATCH = 200;
+
+    interface Op {
+        void run();
+    }
+
+    static final class Result {
+        final String name;
+        final long medianNanos;
+        final long minNanos;
+        final float allocationsPerOp;
+
+        Result(String name, long medianNanos, long minNanos, float allocationsPerOp) {
+            this.name = name;
+            this.medianNanos = medianNanos;
+            this.minNanos = minNanos;
+            this.allocationsPerOp = allocationsPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": median " + medianNanos + " ns/op, min " + minNanos + " ns/op, "
+                    + allocationsPerOp + " allocs/op";
+        }
+    }
+
+    private BenchmarkState() {
+    }
+
+    @SuppressWarnings("deprecation")
+    static Result measure(String name, Op op) {
+        long warmupEnd = SystemClock.elapsedRealtimeNanos() + WARMUP_NANOS;
+        while (SystemClock.elapsedRealtimeNanos() < warmupEnd) {
+            op.run();
+        }
+
+        long[] batches = new long[BATCHES];
+        for (int b = 0; b < BATCHES; b++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < OPS_PER_BATCH; i++) {
+                op.run();
+            }
+            batches[b] = (SystemClock.elapsedRealtimeNanos() - start) / OPS_PER_BATCH;
+        }
+        Arrays.sort(batches);
+
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        for (int i = 0; i < OPS_PER_BATCH; i++) {
+            op.run();
+        }
+        int allocations = Debug.getThreadAllocCount();
+        Debug.stopAllocCounting();
+
+        Result result = new Result(name, batches[BATCHES / 2], batches[0], (float) allocations / OPS_PER_BATCH);
+        Log.i(TAG, result.toString());
+        return result;
+    }
+}
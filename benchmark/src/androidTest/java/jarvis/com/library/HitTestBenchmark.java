@@ -0,0 +1,128 @@
+package jarvis.com.library;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * canScroll* 命中检测与一次完整 MOVE 的 ns/op 与分配次数，按层级规模输出曲线（logcat tag NTSLBenchmark）
+ */
+@RunWith(AndroidJUnit4.class)
+public class HitTestBenchmark {
+
+    private static final SyntheticHierarchy[] DEPTH_CURVE = {
+            new SyntheticHierarchy(1, 3, 20, 0),
+            new SyntheticHierarchy(2, 3, 20, 0),
+            new SyntheticHierarchy(3, 3, 20, 0),
+            new SyntheticHierarchy(4, 3, 20, 0),
+            new SyntheticHierarchy(5, 3, 20, 0),
+    };
+
+    private static final SyntheticHierarchy[] ITEM_CURVE = {
+            new SyntheticHierarchy(2, 2, 5, 0),
+            new SyntheticHierarchy(2, 2, 50, 0),
+            new SyntheticHierarchy(2, 2, 500, 0),
+    };
+
+    private static final SyntheticHierarchy[] APP_BAR_CURVE = {
+            new SyntheticHierarchy(2, 2, 20, 1),
+            new SyntheticHierarchy(2, 2, 20, 2),
+            new SyntheticHierarchy(2, 2, 20, 4),
+    };
+
+    private final Context mContext = InstrumentationRegistry.getTargetContext();
+
+    @Test
+    public void canScrollVertical_depthCurve() {
+        measureVertical(DEPTH_CURVE);
+    }
+
+    @Test
+    public void canScrollVertical_itemCurve() {
+        measureVertical(ITEM_CURVE);
+    }
+
+    @Test
+    public void canScrollVertical_appBarCurve() {
+        measureVertical(APP_BAR_CURVE);
+    }
+
+    @Test
+    public void canScrollHorizontal_depthCurve() {
+        for (SyntheticHierarchy hierarchy : DEPTH_CURVE) {
+            final NestedTouchScrollingLayout layout = hierarchy.build(mContext);
+            final View child = layout.getChildAt(0);
+            BenchmarkState.measure("canScrollLeft[" + hierarchy + "]", new BenchmarkState.Op() {
+                @Override
+                public void run() {
+                    layout.canScrollLeft(child, 540, 960);
+                }
+            });
+            BenchmarkState.measure("canScrollRight[" + hierarchy + "]", new BenchmarkState.Op() {
+                @Override
+                public void run() {
+                    layout.canScrollRight(child, 540, 960);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void onTouchEventMove_depthCurve() {
+        measureMove(DEPTH_CURVE, false);
+    }
+
+    @Test
+    public void onTouchEventMove_indexed_depthCurve() {
+        measureMove(DEPTH_CURVE, true);
+    }
+
+    private void measureMove(SyntheticHierarchy[] curve, boolean indexed) {
+        for (SyntheticHierarchy hierarchy : curve) {
+            final NestedTouchScrollingLayout layout = hierarchy.build(mContext, indexed);
+            final long downTime = SystemClock.uptimeMillis();
+            MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 540, 960, 0);
+            layout.dispatchTouchEvent(down);
+            down.recycle();
+
+            BenchmarkState.measure((indexed ? "onTouchEventMoveIndexed[" : "onTouchEventMove[") + hierarchy + "]", new BenchmarkState.Op() {
+                private long mEventTime = downTime;
+                private boolean mToggle;
+
+                @Override
+                public void run() {
+                    mEventTime += 8;
+                    mToggle = !mToggle;
+                    MotionEvent move = MotionEvent.obtain(downTime, mEventTime, MotionEvent.ACTION_MOVE, 540, mToggle ? 1000 : 1040, 0);
+                    layout.dispatchTouchEvent(move);
+                    move.recycle();
+                }
+            });
+        }
+    }
+
+    private void measureVertical(SyntheticHierarchy[] curve) {
+        for (SyntheticHierarchy hierarchy : curve) {
+            final NestedTouchScrollingLayout layout = hierarchy.build(mContext);
+            final View child = layout.getChildAt(0);
+            BenchmarkState.measure("canScrollUp[" + hierarchy + "]", new BenchmarkState.Op() {
+                @Override
+                public void run() {
+                    layout.canScrollUp(child, 540, 960, false);
+                }
+            });
+            BenchmarkState.measure("canScrollDown[" + hierarchy + "]", new BenchmarkState.Op() {
+                @Override
+                public void run() {
+                    layout.canScrollDown(child, 540, 960, false);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package jarvis.com.library;
+
+import android.content.Context;
+import android.support.design.widget.AppBarLayout;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+/**
+ * 按深度、扇出、RecyclerView item 数与 AppBarLayout 嵌套层数生成测试用 View 树
+ */
+final class SyntheticHierarchy {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+
+    final int depth;
+    final int fanOut;
+    final int recyclerItems;
+    final int nestedAppBars;
+
+    SyntheticHierarchy(int depth, int fanOut, int recyclerItems, int nestedAppBars) {
+        this.depth = depth;
+        this.fanOut = fanOut;
+        this.recyclerItems = recyclerItems;
+        this.nestedAppBars = nestedAppBars;
+    }
+
+    /**
+     * 生成 NestedTouchScrollingLayout 及其子树，并完成 measure / layout
+     */
+    NestedTouchScrollingLayout build(Context context) {
+        return build(context, false);
+    }
+
+    /**
+     * @param indexed 是否开启可滚动子孙索引，索引在这次 layout 中建立
+     */
+    NestedTouchScrollingLayout build(Context context, boolean indexed) {
+        Context themed = new ContextThemeWrapper(context, android.support.v7.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+        View content = buildNode(themed, depth);
+        for (int i = 0; i < nestedAppBars; i++) {
+            content = wrapWithAppBar(themed, content);
+        }
+
+        FrameLayout host = new FrameLayout(themed);
+        NestedTouchScrollingLayout layout = new NestedTouchScrollingLayout(themed);
+        layout.setScrollableIndexEnabled(indexed);
+        layout.addView(content, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        host.addView(layout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        host.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        host.layout(0, 0, WIDTH, HEIGHT);
+        return layout;
+    }
+
+    private View buildNode(Context context, int level) {
+        if (level == 0) {
+            return recyclerItems > 0 ? buildRecyclerView(context) : new View(context);
+        }
+        FrameLayout group = new FrameLayout(context);
+        for (int i = 0; i < fanOut; i++) {
+            group.addView(buildNode(context, level - 1), new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        }
+        return group;
+    }
+
+    private View wrapWithAppBar(Context context, View content) {
+        CoordinatorLayout coordinator = new CoordinatorLayout(context);
+        AppBarLayout appBar = new AppBarLayout(context);
+        appBar.addView(new View(context), new AppBarLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+        coordinator.addView(appBar, new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(new AppBarLayout.ScrollingViewBehavior());
+        coordinator.addView(content, params);
+        return coordinator;
+    }
+
+    private RecyclerView buildRecyclerView(Context context) {
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+            @Override
+            public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+                TextView view = new TextView(parent.getContext());
+                view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+                return new RecyclerView.ViewHolder(view) {
+                };
+            }
+
+            @Override
+            public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+                ((TextView) holder.itemView).setText(String.valueOf(position));
+            }
+
+            @Override
+            public int getItemCount() {
+                return recyclerItems;
+            }
+        });
+        return recyclerView;
+    }
+
+    @Override
+    public String toString() {
+        return "depth=" + depth + ",fanOut=" + fanOut + ",items=" + recyclerItems + ",appBars=" + nestedAppBars;
+    }
+}
@@ -0,0 +1,141 @@
+package jarvis.com.library.core;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 越过 anchor 之后的阻尼曲线：配置时把曲线烘焙成定长查表，拖拽时只做一次查表 + 线性插值，
+ * 超出烘焙范围按末段斜率外推（渐近曲线则保持末值）
+ */
+public final class ResistanceCurve {
+
+    /**
+     * 自定义曲线
+     */
+    public interface Shape {
+        /**
+         * @param distance 越过 anchor 的手指距离，>= 0
+         * @return 实际位移，需单调不减且 evaluate(0) == 0
+         */
+        float evaluate(float distance);
+    }
+
+    private static final int TABLE_SIZE = 129;
+
+    private final float[] mTable = new float[TABLE_SIZE];
+
+    private final float mRange;
+
+    private final float mStep;
+
+    /**
+     * 超出 range 后的斜率
+     */
+    private final float mTailSlope;
+
+    private ResistanceCurve(Shape shape, float range, boolean extrapolate) {
+        if (shape == null) {
+            throw new IllegalArgumentException("shape must not be null!!!");
+        }
+        if (!(range > 0)) {
+            throw new IllegalArgumentException("range must be > 0!!!");
+        }
+        mRange = range;
+        mStep = range / (TABLE_SIZE - 1);
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            mTable[i] = shape.evaluate(i * mStep);
+        }
+        mTailSlope = extrapolate ? (mTable[TABLE_SIZE - 1] - mTable[TABLE_SIZE - 2]) / mStep : 0;
+    }
+
+    /**
+     * 将任意曲线在 [0, range] 上烘焙
+     * @param shape
+     * @param range 烘焙范围，像素
+     * @return
+     */
+    public static ResistanceCurve bake(Shape shape, float range) {
+        return new ResistanceCurve(shape, range, true);
+    }
+
+    /**
+     * 线性阻尼，与 setDampingUp / setDampingDown 等价
+     * @param factor
+     * @return
+     */
+    public static ResistanceCurve linear(final float factor) {
+        return bake(new Shape() {
+            @Override
+            public float evaluate(float distance) {
+                return distance * factor;
+            }
+        }, 1);
+    }
+
+    /**
+     * 渐近式橡皮筋：(1 - 1 / (distance * coefficient / dimension + 1)) * dimension，位移不会超过 dimension
+     * @param coefficient 越小越难拉动，常用 0.55
+     * @param dimension 渐近上限，通常取布局高度
+     * @return
+     */
+    public static ResistanceCurve rubberBand(final float coefficient, final float dimension) {
+        if (!(dimension > 0)) {
+            throw new IllegalArgumentException("dimension must be > 0!!!");
+        }
+        return new ResistanceCurve(new Shape() {
+            @Override
+            public float evaluate(float distance) {
+                return (1 - 1 / (distance * coefficient / dimension + 1)) * dimension;
+            }
+        }, dimension * 2, false);
+    }
+
+    /**
+     * 分段线性：第 i 段 [distances[i - 1], distances[i]) 内斜率为 factors[i]，distances[-1] 视为 0，
+     * 最后一段斜率延续到无穷
+     * @param distances 升序分段点
+     * @param factors 长度为 distances.length + 1
+     * @return
+     */
+    public static ResistanceCurve piecewise(final float[] distances, final float[] factors) {
+        if (distances == null || factors == null || factors.length != distances.length + 1 || distances.length == 0) {
+            throw new IllegalArgumentException("factors length must be distances length + 1!!!");
+        }
+        for (int i = 1; i < distances.length; i++) {
+            if (distances[i] < distances[i - 1]) {
+                throw new IllegalArgumentException("distances must be ascending!!!");
+            }
+        }
+        return bake(new Shape() {
+            @Override
+            public float evaluate(float distance) {
+                float result = 0;
+                float start = 0;
+                for (int i = 0; i < distances.length; i++) {
+                    if (distance <= distances[i]) {
+                        return result + (distance - start) * factors[i];
+                    }
+                    result += (distances[i] - start) * factors[i];
+                    start = distances[i];
+                }
+                return result + (distance - start) * factors[factors.length - 1];
+            }
+        }, distances[distances.length - 1] * 2);
+    }
+
+    /**
+     * @param distance 越过 anchor 的手指距离，>= 0
+     * @return 实际位移
+     */
+    public float apply(float distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        if (distance >= mRange) {
+            return mTable[TABLE_SIZE - 1] + (distance - mRange) * mTailSlope;
+        }
+        float position = distance / mStep;
+        int index = (int) position;
+        float t = position - index;
+        return mTable[index] + (mTable[index + 1] - mTable[index]) * t;
+    }
+}
@@ -0,0 +1,441 @@
+package jarvis.com.library.core;
+
+import java.util.Arrays;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 手势决策核心：hold / release 仲裁、方向限制、阻尼与松手处理，不依赖 android，
+ * 通过 {@link Host} 与具体 View 交互
+ */
+public final class SheetGestureCore {
+
+    /**
+     * 与 MotionEvent 取值一致
+     */
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+
+    /**
+     * 与 NestedTouchScrollingLayout.SheetDirection 取值一致
+     */
+    public static final int DIRECTION_ALL = 0x000;
+    public static final int DIRECTION_TOP = 0x001;
+    public static final int DIRECTION_BOTTOM = 0x002;
+
+    /**
+     * 轴向锁定状态：未超过 slop 前为 PENDING，事件原样交给 child，不做任何可滚动探测
+     */
+    public static final int AXIS_PENDING = 0x000;
+    public static final int AXIS_VERTICAL = 0x001;
+    public static final int AXIS_HORIZONTAL = 0x002;
+
+    public interface Host {
+        /**
+         * 当前布局高度
+         */
+        int getLayoutHeight();
+
+        boolean canChildScrollUp(float x, float y);
+
+        boolean canChildScrollDown(float x, float y);
+
+        /**
+         * 将当前 event 下发给 child
+         * @param offsetY event 需要平移的距离
+         */
+        void forwardToChild(float offsetY);
+
+        /**
+         * 以 ACTION_CANCEL 结束 child 当前手势
+         */
+        void cancelChild();
+
+        /**
+         * 以 ACTION_DOWN 让 child 重新开始手势
+         */
+        void restartChild();
+
+        /**
+         * 方向受限或越界改为绘制反馈，child 归零，不经过阻尼与拖拽期的 measure / 快照处理
+         */
+        void resetChildTranslation();
+
+        /**
+         * 拖拽越过方向限制，或开启 {@link #setOverscrollReplacesTranslation} 时越过滚动边界的距离，child 仍保持 0
+         * @param distance 正数为向下越界，负数为向上越界
+         */
+        void onOverscroll(float distance);
+
+        /**
+         * 应用阻尼后的 translationY
+         * @param transY
+         */
+        void onTranslationChanged(float transY);
+
+        /**
+         * layout 自己消化的手势松手
+         */
+        void onRelease();
+    }
+
+    private final Host mHost;
+
+    private final VelocityEstimator mVelocityEstimator = new VelocityEstimator();
+
+    private float mDownY;
+
+    private float mDownX;
+
+    private float mDownSheetTranslation;
+
+    private float mOriginTranslate = 0;
+
+    /**
+     * 假如 cover BottomSheet 场景，sheetView ** 会 ** 从哪个方向弹出
+     */
+    private int mSheetDirection = DIRECTION_ALL;
+
+    /**
+     * 手指向上阻尼值
+     */
+    private float mDampingUp = 1;
+
+    /**
+     * 手指向下阻尼值
+     */
+    private float mDampingDown = 1;
+
+    /**
+     * 手指向上越过最上 anchor 后的阻尼曲线，为 null 时使用 mDampingUp
+     */
+    private ResistanceCurve mResistanceUp;
+
+    /**
+     * 手指向下越过最下 anchor 后的阻尼曲线，为 null 时使用 mDampingDown
+     */
+    private ResistanceCurve mResistanceDown;
+
+    /**
+     * 阻尼曲线的起算位置，升序 translationY
+     */
+    private int[] mResistanceAnchors = {0};
+
+    /**
+     * 键盘收起，导致 reLayout，getHeight 发生改变，所以手势开始时锁定高度
+     */
+    private int mHeight = 0;
+
+    /**
+     * 本次手势的轴向锁定状态
+     */
+    private int mAxisState = AXIS_PENDING;
+
+    /**
+     * 超过该距离才锁定轴向，像素
+     */
+    private float mTouchSlop = 0;
+
+    /**
+     * 与竖直方向夹角小于该角度时锁定为竖向，取其 tan 比较避免三角函数
+     */
+    private float mAxisLockTan = 1;
+
+    /**
+     * child 是否消化 touch（根据 canScrollUp or canScrollDown）
+     */
+    private boolean isHoldTouch = true;
+
+    private float mSheetTranslation;
+
+    /**
+     * 最近一次交给 Host 的屏幕位移（已应用阻尼 / 阻尼曲线）
+     */
+    private float mDisplayTranslation;
+
+    private boolean isFingerHolderTouch = false;
+
+    /**
+     * 从 0 位开始的拖拽只上报越界距离，不移动 child
+     */
+    private boolean isOverscrollReplacesTranslation = false;
+
+    /**
+     * 本次手势从 0 位开始，且开启了 isOverscrollReplacesTranslation
+     */
+    private boolean isOverscrollGesture = false;
+
+    public SheetGestureCore(Host host) {
+        mHost = host;
+    }
+
+    public void onDown(float x, float y, float childTranslation, int height) {
+        mOriginTranslate = childTranslation;
+        mHeight = height;
+        mAxisState = AXIS_PENDING;
+        mDownY = y;
+        mDownX = x;
+        mSheetTranslation = mHeight - mOriginTranslate;
+        mDownSheetTranslation = mSheetTranslation;
+        mDisplayTranslation = childTranslation;
+        isOverscrollGesture = isOverscrollReplacesTranslation && childTranslation == 0;
+        mVelocityEstimator.clear();
+        isFingerHolderTouch = true;
+    }
+
+    public void onFingerUp() {
+        isFingerHolderTouch = false;
+    }
+
+    public void addMovement(long timeMillis, float y) {
+        mVelocityEstimator.addMovement(timeMillis, y);
+    }
+
+    public float computeVelocity() {
+        return mVelocityEstimator.computeVelocity();
+    }
+
+    public void onTouchEvent(int action, float x, float y) {
+        float deltaY = mDownY - y;
+        float deltaX = mDownX - x;
+
+        if (mAxisState == AXIS_PENDING) {
+            mAxisState = recognizeAxis(deltaX, deltaY);
+
+            if (mAxisState == AXIS_VERTICAL) {
+                mDownY = y;
+                mDownX = x;
+                deltaY = 0;
+            }
+        }
+
+        if (mAxisState != AXIS_VERTICAL) {
+            mHost.forwardToChild(mSheetTranslation - mHeight);
+            return;
+        }
+
+        float newSheetTranslation = mDownSheetTranslation + deltaY;
+
+        if (isHoldTouch && deltaY != 0 && !isChildCanScroll(x, y, deltaY)) {
+            mDownY = y;
+            mVelocityEstimator.clear();
+            isHoldTouch = false;
+            newSheetTranslation = mSheetTranslation;
+            mHost.cancelChild();
+        }
+
+        if (!isHoldTouch && deltaY != 0 && isChildCanScroll(x, y, deltaY)) {
+            setSheetTranslation(mHeight);
+            isHoldTouch = true;
+            if (action == ACTION_MOVE) {
+                mHost.restartChild();
+            }
+        }
+
+        if (isHoldTouch && deltaY != 0) {
+            mHost.forwardToChild(mSheetTranslation - mHeight);
+        } else {
+            setSheetTranslation(newSheetTranslation);
+
+            if (action == ACTION_UP || action == ACTION_CANCEL) {
+                isHoldTouch = true;
+                mHost.onRelease();
+            }
+        }
+    }
+
+    private int recognizeAxis(float deltaX, float deltaY) {
+        float absX = Math.abs(deltaX);
+        float absY = Math.abs(deltaY);
+        if (absX * absX + absY * absY <= mTouchSlop * mTouchSlop) {
+            return AXIS_PENDING;
+        }
+        return absX < absY * mAxisLockTan ? AXIS_VERTICAL : AXIS_HORIZONTAL;
+    }
+
+    private boolean isChildCanScroll(float x, float y, float deltaY) {
+        float childY = y + (mSheetTranslation - mHost.getLayoutHeight());
+        if (deltaY - mOriginTranslate < 0) {
+            return mHost.canChildScrollUp(x, childY);
+        }
+        if (deltaY - mOriginTranslate > 0) {
+            return mHost.canChildScrollDown(x, childY);
+        }
+        return false;
+    }
+
+    private void setSheetTranslation(float newTranslation) {
+        mSheetTranslation = newTranslation;
+        int bottomClip = (int) (mHeight - Math.ceil(mSheetTranslation));
+        setTranslation(bottomClip, true);
+    }
+
+    /**
+     * 动画驱动的位移，transY 即屏幕位移，不再经过阻尼；回弹应从 {@link #getDisplayTranslation()} 开始
+     * @param transY
+     */
+    public void setAnimTranslation(float transY) {
+        mSheetTranslation = mHeight - transY;
+        setTranslation(transY, false);
+    }
+
+    /**
+     * @param transY
+     * @param dragging 阻尼与阻尼曲线只作用于手指拖拽，动画直接使用屏幕位移
+     */
+    private void setTranslation(float transY, boolean dragging) {
+        if ((mSheetDirection == DIRECTION_BOTTOM && transY < 0)
+                || (mSheetDirection == DIRECTION_TOP && transY > 0)
+                || (dragging && isOverscrollGesture)) {
+            mDisplayTranslation = 0;
+            mHost.resetChildTranslation();
+            if (dragging) {
+                mHost.onOverscroll(transY);
+            }
+            return;
+        }
+        if (dragging) {
+            transY = applyResistance(transY);
+        }
+        mDisplayTranslation = transY;
+        mHost.onTranslationChanged(transY);
+        if (transY == 0) {
+            mDownSheetTranslation = mHeight;
+            mDownY -= mOriginTranslate;
+            mOriginTranslate = 0;
+        }
+    }
+
+    private float applyDamping(float transY) {
+        return transY > 0 ? transY * mDampingDown : transY * mDampingUp;
+    }
+
+    /**
+     * 曲线叠加在 anchor 处的阻尼值之上，越过 anchor 时位移连续
+     */
+    private float applyResistance(float transY) {
+        int lower = mResistanceAnchors[0];
+        int upper = mResistanceAnchors[mResistanceAnchors.length - 1];
+        if (mResistanceDown != null && transY > upper) {
+            return applyDamping(upper) + mResistanceDown.apply(transY - upper);
+        }
+        if (mResistanceUp != null && transY < lower) {
+            return applyDamping(lower) - mResistanceUp.apply(lower - transY);
+        }
+        return applyDamping(transY);
+    }
+
+    /**
+     * 手指位移（未经阻尼）
+     */
+    public float getTranslation() {
+        return mHeight - mSheetTranslation;
+    }
+
+    /**
+     * 当前屏幕位移，回弹动画的起点
+     */
+    public float getDisplayTranslation() {
+        return mDisplayTranslation;
+    }
+
+    public float getSheetTranslation() {
+        return mSheetTranslation;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public void setHeight(int height) {
+        mHeight = height;
+    }
+
+    public float getDownX() {
+        return mDownX;
+    }
+
+    public float getDownY() {
+        return mDownY;
+    }
+
+    /**
+     * 竖向拖拽已被识别
+     */
+    public boolean isParentOwnsTouch() {
+        return mAxisState == AXIS_VERTICAL;
+    }
+
+    public int getAxisState() {
+        return mAxisState;
+    }
+
+    /**
+     * @param touchSlop 锁定轴向前允许的移动距离，像素
+     */
+    public void setTouchSlop(float touchSlop) {
+        mTouchSlop = Math.max(0, touchSlop);
+    }
+
+    /**
+     * @param degrees 与竖直方向夹角小于该值锁定为竖向，否则锁定为横向，取值 (0, 90)
+     */
+    public void setAxisLockAngle(float degrees) {
+        if (!(degrees > 0 && degrees < 90)) {
+            throw new IllegalArgumentException("degrees must be in (0, 90)!!!");
+        }
+        mAxisLockTan = (float) Math.tan(Math.toRadians(degrees));
+    }
+
+    public boolean isHoldTouch() {
+        return isHoldTouch;
+    }
+
+    public boolean isFingerHolderTouch() {
+        return isFingerHolderTouch;
+    }
+
+    public void setSheetDirection(int direction) {
+        mSheetDirection = direction;
+    }
+
+    /**
+     * 开启后，child 静止在 0 位时开始的拖拽（即 child 已滚到边界）不再带阻尼移动 child，
+     * 只通过 {@link Host#onOverscroll} 上报越界距离；不在 0 位的 sheet 拖拽不受影响
+     * @param enabled
+     */
+    public void setOverscrollReplacesTranslation(boolean enabled) {
+        isOverscrollReplacesTranslation = enabled;
+    }
+
+    public void setDampingUp(float dampingUp) {
+        mDampingUp = dampingUp;
+    }
+
+    public void setDampingDown(float dampingDown) {
+        mDampingDown = dampingDown;
+    }
+
+    public void setResistanceUp(ResistanceCurve curve) {
+        mResistanceUp = curve;
+    }
+
+    public void setResistanceDown(ResistanceCurve curve) {
+        mResistanceDown = curve;
+    }
+
+    /**
+     * @param anchors 阻尼曲线起算位置，为空时只有 0
+     */
+    public void setResistanceAnchors(int... anchors) {
+        if (anchors == null || anchors.length == 0) {
+            mResistanceAnchors = new int[] {0};
+            return;
+        }
+        int[] sorted = anchors.clone();
+        Arrays.sort(sorted);
+        mResistanceAnchors = sorted;
+    }
+}
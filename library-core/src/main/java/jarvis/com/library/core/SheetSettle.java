@@ -0,0 +1,25 @@
+package jarvis.com.library.core;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 回弹相关计算：减速曲线
+ */
+public final class SheetSettle {
+
+    private SheetSettle() {
+    }
+
+    /**
+     * 与 DecelerateInterpolator 相同的减速曲线
+     * @param input [0, 1]
+     * @param factor
+     * @return
+     */
+    public static float decelerate(float input, float factor) {
+        if (factor == 1.0f) {
+            return 1.0f - (1.0f - input) * (1.0f - input);
+        }
+        return (float) (1.0f - Math.pow(1.0f - input, 2 * factor));
+    }
+}
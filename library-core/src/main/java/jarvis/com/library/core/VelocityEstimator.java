@@ -0,0 +1,95 @@
+package jarvis.com.library.core;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 单轴速度估计，与 android VelocityTracker 默认策略一致：最近 100ms 内至多 20 个采样做二次最小二乘，
+ * 采样间隔超过 40ms 视为手指停住重新开始，定长数组实现，运行期不分配
+ */
+public final class VelocityEstimator {
+
+    private static final int HISTORY_SIZE = 20;
+
+    private static final long HORIZON_MILLIS = 100;
+
+    private static final long ASSUME_POINTER_STOPPED_MILLIS = 40;
+
+    private final long[] mTimes = new long[HISTORY_SIZE];
+    private final float[] mPositions = new float[HISTORY_SIZE];
+
+    /**
+     * 最新采样下标
+     */
+    private int mIndex;
+    private int mCount;
+
+    public void clear() {
+        mIndex = 0;
+        mCount = 0;
+    }
+
+    /**
+     * @param timeMillis event time
+     * @param position 当前轴坐标
+     */
+    public void addMovement(long timeMillis, float position) {
+        if (mCount > 0 && timeMillis - mTimes[mIndex] >= ASSUME_POINTER_STOPPED_MILLIS) {
+            clear();
+        }
+        if (mCount > 0) {
+            mIndex = (mIndex + 1) % HISTORY_SIZE;
+        }
+        mTimes[mIndex] = timeMillis;
+        mPositions[mIndex] = position;
+        if (mCount < HISTORY_SIZE) {
+            mCount++;
+        }
+    }
+
+    /**
+     * @return 像素 / 秒
+     */
+    public float computeVelocity() {
+        if (mCount < 2) {
+            return 0;
+        }
+        long newest = mTimes[mIndex];
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0, s4 = 0;
+        double y0 = 0, y1 = 0, y2 = 0;
+        int n = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (mIndex - i + HISTORY_SIZE) % HISTORY_SIZE;
+            long age = newest - mTimes[index];
+            if (age > HORIZON_MILLIS) {
+                break;
+            }
+            double t = -age;
+            double y = mPositions[index];
+            double t2 = t * t;
+            s0 += 1;
+            s1 += t;
+            s2 += t2;
+            s3 += t2 * t;
+            s4 += t2 * t2;
+            y0 += y;
+            y1 += t * y;
+            y2 += t2 * y;
+            n++;
+        }
+        if (n < 2) {
+            return 0;
+        }
+        if (n >= 3) {
+            double det = s0 * (s2 * s4 - s3 * s3) - s1 * (s1 * s4 - s3 * s2) + s2 * (s1 * s3 - s2 * s2);
+            if (Math.abs(det) > 1e-9) {
+                double detB = s0 * (y1 * s4 - s3 * y2) - y0 * (s1 * s4 - s3 * s2) + s2 * (s1 * y2 - y1 * s2);
+                return (float) (detB / det * 1000);
+            }
+        }
+        double denominator = s0 * s2 - s1 * s1;
+        if (Math.abs(denominator) < 1e-9) {
+            return 0;
+        }
+        return (float) ((s0 * y1 - s1 * y0) / denominator * 1000);
+    }
+}
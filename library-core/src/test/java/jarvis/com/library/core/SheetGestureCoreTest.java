@@ -0,0 +1,306 @@
+package jarvis.com.library.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 纯 JVM 上校验手势核心的仲裁、阻尼、方向限制与速度估计
+ */
+public class SheetGestureCoreTest {
+
+    private static final int HEIGHT = 1000;
+
+    private FakeHost mHost;
+    private SheetGestureCore mCore;
+
+    @Before
+    public void setUp() {
+        mHost = new FakeHost();
+        mCore = new SheetGestureCore(mHost);
+    }
+
+    @Test
+    public void dragDown_withoutScrollableChild_translatesSheet() {
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(200, mHost.translation, 0);
+        assertFalse(mCore.isHoldTouch());
+        assertTrue(mHost.events.contains("cancel"));
+    }
+
+    @Test
+    public void dragDown_childCanScrollUp_holdsTouch() {
+        mHost.canScrollUp = true;
+
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(0, mHost.translation, 0);
+        assertTrue(mCore.isHoldTouch());
+        assertEquals("forward", mHost.events.get(mHost.events.size() - 1));
+    }
+
+    @Test
+    public void release_thenChildScrollableAgain_restartsChild() {
+        drag(300, 400, 500, 600, 700);
+        assertEquals(200, mHost.translation, 0);
+
+        mHost.canScrollDown = true;
+        move(650);
+        move(400);
+
+        assertEquals(0, mHost.translation, 0);
+        assertTrue(mCore.isHoldTouch());
+        assertTrue(mHost.events.lastIndexOf("restart") > mHost.events.lastIndexOf("cancel"));
+    }
+
+    @Test
+    public void tapWithinSlop_passesThroughWithoutProbing() {
+        mHost.canScrollUp = true;
+        mCore.setTouchSlop(16);
+
+        drag(300, 305, 310);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_UP, 540, 310);
+
+        assertEquals(SheetGestureCore.AXIS_PENDING, mCore.getAxisState());
+        assertEquals(0, mHost.probes);
+        assertEquals(0, mHost.translation, 0);
+    }
+
+    @Test
+    public void horizontalLock_neverTranslatesSheet() {
+        mCore.onDown(540, 300, 0, HEIGHT);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_DOWN, 540, 300);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_MOVE, 600, 310);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_MOVE, 600, 500);
+
+        assertEquals(SheetGestureCore.AXIS_HORIZONTAL, mCore.getAxisState());
+        assertEquals(0, mHost.translation, 0);
+    }
+
+    @Test
+    public void axisLockAngle_widensVerticalCone() {
+        mCore.setAxisLockAngle(60);
+
+        mCore.onDown(540, 300, 0, HEIGHT);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_DOWN, 540, 300);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_MOVE, 600, 350);
+
+        assertEquals(SheetGestureCore.AXIS_VERTICAL, mCore.getAxisState());
+    }
+
+    @Test
+    public void damping_scalesTranslation() {
+        mCore.setDampingDown(0.5f);
+
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(100, mHost.translation, 0);
+    }
+
+    @Test
+    public void bottomDirection_clampsUpwardTranslation() {
+        mCore.setSheetDirection(SheetGestureCore.DIRECTION_BOTTOM);
+
+        drag(700, 600, 500, 400, 300);
+
+        assertEquals(0, mHost.translation, 0);
+        assertTrue(mHost.events.contains("reset"));
+        assertEquals(-200, mHost.overscroll, 0.5f);
+    }
+
+    @Test
+    public void overscrollReplacesTranslation_atRest_reportsDistanceOnly() {
+        mCore.setOverscrollReplacesTranslation(true);
+
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(0, mHost.translation, 0);
+        assertFalse(mHost.events.contains("translate"));
+        assertEquals(200, mHost.overscroll, 0.5f);
+
+        move(100);
+
+        assertEquals(-400, mHost.overscroll, 0.5f);
+        mCore.onFingerUp();
+        mCore.onTouchEvent(SheetGestureCore.ACTION_UP, 540, 100);
+        assertEquals("release", mHost.events.get(mHost.events.size() - 1));
+    }
+
+    @Test
+    public void overscrollReplacesTranslation_offRest_stillTranslates() {
+        mHost.translation = 300;
+        mCore.setOverscrollReplacesTranslation(true);
+
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(500, mHost.translation, 0);
+        assertEquals(0, mHost.overscroll, 0);
+    }
+
+    @Test
+    public void up_afterSheetDrag_releases() {
+        drag(300, 400, 500, 600, 700);
+        mCore.onFingerUp();
+        mCore.onTouchEvent(SheetGestureCore.ACTION_UP, 540, 700);
+
+        assertEquals("release", mHost.events.get(mHost.events.size() - 1));
+        assertTrue(mCore.isHoldTouch());
+        assertFalse(mCore.isFingerHolderTouch());
+    }
+
+    @Test
+    public void resistanceCurve_appliesPastAnchorOnly() {
+        mCore.setResistanceDown(ResistanceCurve.linear(0.5f));
+        mCore.setResistanceAnchors(0, 100);
+
+        drag(300, 400, 500, 600, 700);
+
+        assertEquals(150, mHost.translation, 0.5f);
+    }
+
+    @Test
+    public void settle_firstFrameMatchesLastDraggedFrame() {
+        mCore.setResistanceDown(ResistanceCurve.linear(0.5f));
+        mCore.setResistanceAnchors(0, 100);
+
+        drag(300, 400, 500, 600, 700);
+        mCore.onFingerUp();
+        mCore.onTouchEvent(SheetGestureCore.ACTION_UP, 540, 700);
+        float dragged = mHost.translation;
+
+        mCore.setAnimTranslation(mCore.getDisplayTranslation());
+
+        assertEquals(150, dragged, 0.5f);
+        assertEquals(dragged, mHost.translation, 0);
+    }
+
+    @Test
+    public void resistanceCurve_isContinuousAtAnchorWithDamping() {
+        mCore.setDampingDown(0.5f);
+        mCore.setResistanceDown(ResistanceCurve.linear(0.25f));
+        mCore.setResistanceAnchors(0, 100);
+
+        drag(300, 400, 500, 600);
+        float atAnchor = mHost.translation;
+        move(604);
+
+        assertEquals(50, atAnchor, 0.5f);
+        assertEquals(atAnchor + 1, mHost.translation, 0.5f);
+    }
+
+    @Test
+    public void rubberBand_isMonotonicAndBounded() {
+        ResistanceCurve curve = ResistanceCurve.rubberBand(0.55f, HEIGHT);
+        float last = 0;
+        for (int distance = 0; distance <= HEIGHT * 10; distance += 50) {
+            float value = curve.apply(distance);
+            assertTrue(value >= last);
+            last = value;
+        }
+        assertTrue(last <= HEIGHT);
+        assertEquals((1 - 1 / (300 * 0.55f / HEIGHT + 1)) * HEIGHT, curve.apply(300), 0.5f);
+    }
+
+    @Test
+    public void velocity_constantMotion() {
+        VelocityEstimator estimator = new VelocityEstimator();
+        for (int i = 0; i < 10; i++) {
+            estimator.addMovement(i * 8, i * 8 * 2);
+        }
+
+        assertEquals(2000, estimator.computeVelocity(), 1);
+    }
+
+    @Test
+    public void velocity_resetsAfterPointerStopped() {
+        VelocityEstimator estimator = new VelocityEstimator();
+        estimator.addMovement(0, 0);
+        estimator.addMovement(8, 100);
+        estimator.addMovement(200, 100);
+
+        assertEquals(0, estimator.computeVelocity(), 0);
+    }
+
+    private void drag(float downY, float... moves) {
+        mCore.onDown(540, downY, mHost.translation, HEIGHT);
+        mCore.onTouchEvent(SheetGestureCore.ACTION_DOWN, 540, downY);
+        for (float y : moves) {
+            move(y);
+        }
+    }
+
+    private void move(float y) {
+        mCore.onTouchEvent(SheetGestureCore.ACTION_MOVE, 540, y);
+    }
+
+    private static class FakeHost implements SheetGestureCore.Host {
+
+        boolean canScrollUp;
+        boolean canScrollDown;
+        float translation;
+        int probes;
+        float overscroll;
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public int getLayoutHeight() {
+            return HEIGHT;
+        }
+
+        @Override
+        public boolean canChildScrollUp(float x, float y) {
+            probes++;
+            return canScrollUp;
+        }
+
+        @Override
+        public boolean canChildScrollDown(float x, float y) {
+            probes++;
+            return canScrollDown;
+        }
+
+        @Override
+        public void forwardToChild(float offsetY) {
+            events.add("forward");
+        }
+
+        @Override
+        public void cancelChild() {
+            events.add("cancel");
+        }
+
+        @Override
+        public void restartChild() {
+            events.add("restart");
+        }
+
+        @Override
+        public void resetChildTranslation() {
+            translation = 0;
+            events.add("reset");
+        }
+
+        @Override
+        public void onOverscroll(float distance) {
+            overscroll = distance;
+        }
+
+        @Override
+        public void onTranslationChanged(float transY) {
+            translation = transY;
+            events.add("translate");
+        }
+
+        @Override
+        public void onRelease() {
+            events.add("release");
+        }
+    }
+}
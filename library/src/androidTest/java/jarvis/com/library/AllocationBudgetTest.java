@@ -0,0 +1,212 @@
+package jarvis.com.library;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.ScrollView;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 拖拽、回弹、交接三条热路径的 Java 分配预算，超出即失败。layout 挂在 Activity 的 window 上，
+ * 回弹帧包含真实的 traversal
+ */
+@RunWith(AndroidJUnit4.class)
+public class AllocationBudgetTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    /**
+     * 每个 MOVE 允许的分配次数
+     */
+    private static final float DRAG_BUDGET_PER_EVENT = 0;
+
+    /**
+     * 每帧回弹允许的分配次数：统计第一次位移回调之后、最后一次位移回调为止的主线程分配，
+     * 即每帧的动画更新、位移、回调与该帧 traversal；不含 recover() 本身、首帧以及动画 start / end
+     */
+    private static final float SETTLE_BUDGET_PER_FRAME = 0;
+
+    /**
+     * 交接后事件经 ScrollView 自身派发，允许少量分配
+     */
+    private static final float HANDOFF_BUDGET_PER_EVENT = 1;
+
+    private static final int MOVES = 60;
+
+    @Rule
+    public final ActivityTestRule<Activity> mActivityRule = new ActivityTestRule<>(Activity.class);
+
+    private final Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void drag_staysWithinBudget() {
+        final NestedTouchScrollingLayout layout = attach(new View(mActivityRule.getActivity()));
+        final float[] allocations = new float[1];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // 首轮预热类加载与 MotionEvent 池
+                runGesture(layout, 300, 5);
+                allocations[0] = runGesture(layout, 300, 5);
+            }
+        });
+        assertBudget("drag", allocations[0], DRAG_BUDGET_PER_EVENT);
+    }
+
+    @Test
+    public void handoff_staysWithinBudget() {
+        final ScrollView scrollView = new ScrollView(mActivityRule.getActivity());
+        View content = new View(mActivityRule.getActivity());
+        scrollView.addView(content, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, HEIGHT * 4));
+        final NestedTouchScrollingLayout layout = attach(scrollView);
+        final float[] allocations = new float[1];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                scrollView.scrollTo(0, HEIGHT);
+                runGesture(layout, 1500, -5);
+                scrollView.scrollTo(0, HEIGHT);
+                allocations[0] = runGesture(layout, 1500, -5);
+            }
+        });
+        assertBudget("handoff", allocations[0], HANDOFF_BUDGET_PER_EVENT);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void settle_staysWithinBudget() throws InterruptedException {
+        final NestedTouchScrollingLayout layout = attach(new View(mActivityRule.getActivity()));
+        final boolean[] counting = new boolean[1];
+        final int[] frames = new int[1];
+        final int[] allocations = new int[1];
+        layout.registerNestScrollChildCallback(new NestedTouchScrollingLayout.INestChildScrollChange() {
+            @Override
+            public void onNestChildScrollChange(float deltaY) {
+                if (!counting[0]) {
+                    return;
+                }
+                if (frames[0] < 0) {
+                    // 首帧之后开始统计
+                    Debug.startAllocCounting();
+                    Debug.resetThreadAllocCount();
+                } else {
+                    allocations[0] = Debug.getThreadAllocCount();
+                }
+                frames[0]++;
+            }
+
+            @Override
+            public void onNestChildScrollRelease(float deltaY, int velocityY) {
+            }
+
+            @Override
+            public void onFingerUp(float velocityY) {
+            }
+
+            @Override
+            public void onNestChildHorizationScroll(MotionEvent event, float deltaX, float deltaY) {
+            }
+        });
+
+        settle(layout, HEIGHT / 2);
+        settle(layout, 0);
+        counting[0] = true;
+        frames[0] = -1;
+        settle(layout, HEIGHT / 2);
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                counting[0] = false;
+                Debug.stopAllocCounting();
+            }
+        });
+        assertTrue("no settle frames", frames[0] > 0);
+        assertBudget("settle", (float) allocations[0] / frames[0], SETTLE_BUDGET_PER_FRAME);
+    }
+
+    /**
+     * 在主线程执行一次 recover 并等待结束
+     */
+    private void settle(final NestedTouchScrollingLayout layout, final int target) throws InterruptedException {
+        final CountDownLatch settled = new CountDownLatch(1);
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                layout.recover(target, new Runnable() {
+                    @Override
+                    public void run() {
+                        settled.countDown();
+                    }
+                }, 200);
+            }
+        });
+        assertTrue("settle timed out", settled.await(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 一次 DOWN / MOVE* / UP 手势，事件提前创建，只统计派发
+     * @return 每个事件的平均分配次数
+     */
+    @SuppressWarnings("deprecation")
+    private static float runGesture(NestedTouchScrollingLayout layout, float startY, float stepY) {
+        MotionEvent[] events = new MotionEvent[MOVES + 2];
+        long downTime = SystemClock.uptimeMillis();
+        events[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, WIDTH / 2, startY, 0);
+        for (int i = 1; i <= MOVES; i++) {
+            events[i] = MotionEvent.obtain(downTime, downTime + i * 8, MotionEvent.ACTION_MOVE, WIDTH / 2, startY + stepY * i, 0);
+        }
+        events[MOVES + 1] = MotionEvent.obtain(downTime, downTime + (MOVES + 1) * 8, MotionEvent.ACTION_UP, WIDTH / 2, startY + stepY * MOVES, 0);
+
+        layout.dispatchTouchEvent(events[0]);
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        for (int i = 1; i <= MOVES; i++) {
+            layout.dispatchTouchEvent(events[i]);
+        }
+        int allocations = Debug.getThreadAllocCount();
+        Debug.stopAllocCounting();
+        layout.dispatchTouchEvent(events[MOVES + 1]);
+
+        for (MotionEvent event : events) {
+            event.recycle();
+        }
+        return (float) allocations / MOVES;
+    }
+
+    private NestedTouchScrollingLayout attach(final View child) {
+        final NestedTouchScrollingLayout[] result = new NestedTouchScrollingLayout[1];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                NestedTouchScrollingLayout layout = new NestedTouchScrollingLayout(mActivityRule.getActivity());
+                layout.addView(child, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                mActivityRule.getActivity().setContentView(layout, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+                result[0] = layout;
+            }
+        });
+        // 等首次 traversal 完成
+        mInstrumentation.waitForIdleSync();
+        return result[0];
+    }
+
+    private static void assertBudget(String path, float perUnit, float budget) {
+        assertTrue(path + " allocations " + perUnit + " exceed budget " + budget, perUnit <= budget);
+    }
+}
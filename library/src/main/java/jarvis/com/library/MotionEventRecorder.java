@@ -0,0 +1,113 @@
+package jarvis.com.library;
+
+import android.view.MotionEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 记录到达 NestedTouchScrollingLayout 的原始 MotionEvent 流（含 historical 采样与多指数据），
+ * 输出紧凑二进制，配合 {@link MotionEventReplayer} 做确定性回放
+ */
+public final class MotionEventRecorder {
+
+    static final int MAGIC = 0x4e545352;
+
+    static final int VERSION = 1;
+
+    private ByteArrayOutputStream mBuffer;
+    private DataOutputStream mOutput;
+    private int mEventCount;
+
+    public void start() {
+        mBuffer = new ByteArrayOutputStream(16 * 1024);
+        mOutput = new DataOutputStream(mBuffer);
+        mEventCount = 0;
+        try {
+            mOutput.writeInt(MAGIC);
+            mOutput.writeShort(VERSION);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean isRecording() {
+        return mOutput != null;
+    }
+
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * 结束录制
+     * @return 录制数据，未开始录制时返回空数组
+     */
+    public byte[] stop() {
+        if (mOutput == null) {
+            return new byte[0];
+        }
+        byte[] data = mBuffer.toByteArray();
+        mBuffer = null;
+        mOutput = null;
+        return data;
+    }
+
+    void record(MotionEvent event) {
+        if (mOutput == null) {
+            return;
+        }
+        try {
+            write(mOutput, event);
+            mEventCount++;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(DataOutputStream out, MotionEvent event) throws IOException {
+        int pointerCount = event.getPointerCount();
+        int historySize = event.getHistorySize();
+        out.writeInt(event.getAction());
+        out.writeLong(event.getDownTime());
+        out.writeInt(event.getMetaState());
+        out.writeInt(event.getButtonState());
+        out.writeInt(event.getFlags());
+        out.writeInt(event.getEdgeFlags());
+        out.writeInt(event.getSource());
+        out.writeInt(event.getDeviceId());
+        out.writeFloat(event.getXPrecision());
+        out.writeFloat(event.getYPrecision());
+        out.writeByte(pointerCount);
+        out.writeShort(historySize);
+        for (int p = 0; p < pointerCount; p++) {
+            out.writeInt(event.getPointerId(p));
+            out.writeByte(event.getToolType(p));
+        }
+        for (int h = 0; h < historySize; h++) {
+            out.writeLong(event.getHistoricalEventTime(h));
+            for (int p = 0; p < pointerCount; p++) {
+                out.writeFloat(event.getHistoricalX(p, h));
+                out.writeFloat(event.getHistoricalY(p, h));
+                out.writeFloat(event.getHistoricalPressure(p, h));
+                out.writeFloat(event.getHistoricalSize(p, h));
+                out.writeFloat(event.getHistoricalTouchMajor(p, h));
+                out.writeFloat(event.getHistoricalTouchMinor(p, h));
+                out.writeFloat(event.getHistoricalOrientation(p, h));
+            }
+        }
+        out.writeLong(event.getEventTime());
+        for (int p = 0; p < pointerCount; p++) {
+            out.writeFloat(event.getX(p));
+            out.writeFloat(event.getY(p));
+            out.writeFloat(event.getPressure(p));
+            out.writeFloat(event.getSize(p));
+            out.writeFloat(event.getTouchMajor(p));
+            out.writeFloat(event.getTouchMinor(p));
+            out.writeFloat(event.getOrientation(p));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package jarvis.com.library;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 将 {@link MotionEventRecorder} 的录制数据按可控时钟回放到 layout，
+ * 输出每个 event 之后的 sheet 位置、回调序列与 CPU 耗时
+ */
+public final class MotionEventReplayer {
+
+    public interface Clock {
+        /**
+         * 回放起点，录制中的 event time 平移到此时间之后
+         * @return
+         */
+        long uptimeMillis();
+
+        /**
+         * 下一个 event 之前推进时钟，JVM 环境可在此推进 looper
+         * @param uptimeMillis
+         */
+        void advanceTo(long uptimeMillis);
+    }
+
+    /**
+     * 不等待，按录制顺序立即回放
+     */
+    public static final Clock IMMEDIATE = new Clock() {
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void advanceTo(long uptimeMillis) {
+        }
+    };
+
+    public static final class Result {
+
+        private final float[] mSheetPositions;
+        private final long[] mCpuTimeNanos;
+        private final List<String> mCallbacks;
+
+        Result(float[] sheetPositions, long[] cpuTimeNanos, List<String> callbacks) {
+            mSheetPositions = sheetPositions;
+            mCpuTimeNanos = cpuTimeNanos;
+            mCallbacks = callbacks;
+        }
+
+        public int getEventCount() {
+            return mSheetPositions.length;
+        }
+
+        /**
+         * 第 index 个 event 处理完后 child 的 translationY
+         */
+        public float getSheetPosition(int index) {
+            return mSheetPositions[index];
+        }
+
+        /**
+         * 第 index 个 event 的线程 CPU 耗时，设备不支持时为 -1
+         */
+        public long getCpuTimeNanos(int index) {
+            return mCpuTimeNanos[index];
+        }
+
+        /**
+         * 回调序列，形如 change:120.0、release:300.0:-1500、fingerUp:-1500.0、horizontal:40.0:2.0
+         */
+        public List<String> getCallbacks() {
+            return mCallbacks;
+        }
+    }
+
+    private MotionEventReplayer() {
+    }
+
+    public static Result replay(NestedTouchScrollingLayout layout, byte[] recording) {
+        return replay(layout, recording, IMMEDIATE);
+    }
+
+    public static Result replay(NestedTouchScrollingLayout layout, byte[] recording, Clock clock) {
+        final List<String> callbacks = new ArrayList<>();
+        NestedTouchScrollingLayout.INestChildScrollChange recorder = new NestedTouchScrollingLayout.INestChildScrollChange() {
+            @Override
+            public void onNestChildScrollChange(float deltaY) {
+                callbacks.add("change:" + deltaY);
+            }
+
+            @Override
+            public void onNestChildScrollRelease(float deltaY, int velocityY) {
+                callbacks.add("release:" + deltaY + ":" + velocityY);
+            }
+
+            @Override
+            public void onFingerUp(float velocityY) {
+                callbacks.add("fingerUp:" + velocityY);
+            }
+
+            @Override
+            public void onNestChildHorizationScroll(MotionEvent event, float deltaX, float deltaY) {
+                callbacks.add("horizontal:" + deltaX + ":" + deltaY);
+            }
+        };
+
+        List<MotionEvent> events;
+        try {
+            events = read(recording, clock.uptimeMillis());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("broken recording!!!", e);
+        }
+
+        float[] positions = new float[events.size()];
+        long[] cpuTimes = new long[events.size()];
+        layout.registerNestScrollChildCallback(recorder);
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                MotionEvent event = events.get(i);
+                clock.advanceTo(event.getEventTime());
+                long start = Debug.threadCpuTimeNanos();
+                layout.dispatchTouchEvent(event);
+                long end = Debug.threadCpuTimeNanos();
+                cpuTimes[i] = start < 0 ? -1 : end - start;
+                View child = layout.getChildAt(0);
+                positions[i] = child == null ? 0 : child.getTranslationY();
+                event.recycle();
+            }
+        } finally {
+            layout.removeNestScrollChildCallback(recorder);
+        }
+        return new Result(positions, cpuTimes, callbacks);
+    }
+
+    static List<MotionEvent> read(byte[] recording, long baseTime) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(recording));
+        if (in.readInt() != MotionEventRecorder.MAGIC || in.readShort() != MotionEventRecorder.VERSION) {
+            throw new IOException("unknown recording format");
+        }
+        List<MotionEvent> events = new ArrayList<>();
+        long timeOffset = Long.MIN_VALUE;
+        while (in.available() > 0) {
+            int action = in.readInt();
+            long downTime = in.readLong();
+            int metaState = in.readInt();
+            int buttonState = in.readInt();
+            int flags = in.readInt();
+            int edgeFlags = in.readInt();
+            int source = in.readInt();
+            int deviceId = in.readInt();
+            float xPrecision = in.readFloat();
+            float yPrecision = in.readFloat();
+            int pointerCount = in.readByte();
+            int historySize = in.readShort();
+
+            MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[pointerCount];
+            MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointerCount];
+            for (int p = 0; p < pointerCount; p++) {
+                properties[p] = new MotionEvent.PointerProperties();
+                properties[p].id = in.readInt();
+                properties[p].toolType = in.readByte();
+                coords[p] = new MotionEvent.PointerCoords();
+            }
+
+            if (timeOffset == Long.MIN_VALUE) {
+                timeOffset = baseTime - downTime;
+            }
+
+            MotionEvent event = null;
+            for (int h = 0; h <= historySize; h++) {
+                long eventTime = in.readLong() + timeOffset;
+                for (int p = 0; p < pointerCount; p++) {
+                    coords[p].x = in.readFloat();
+                    coords[p].y = in.readFloat();
+                    coords[p].pressure = in.readFloat();
+                    coords[p].size = in.readFloat();
+                    coords[p].touchMajor = in.readFloat();
+                    coords[p].touchMinor = in.readFloat();
+                    coords[p].orientation = in.readFloat();
+                }
+                if (event == null) {
+                    event = MotionEvent.obtain(downTime + timeOffset, eventTime, action, pointerCount,
+                            properties, coords, metaState, buttonState, xPrecision, yPrecision,
+                            deviceId, edgeFlags, source, flags);
+                } else {
+                    event.addBatch(eventTime, coords, metaState);
+                }
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
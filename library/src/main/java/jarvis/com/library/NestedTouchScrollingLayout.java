@@ -3,33 +3,48 @@ package jarvis.com.library;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
+import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.ColorInt;
 import android.support.annotation.IntDef;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.design.widget.AppBarLayout;
 import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.AsyncLayoutInflater;
 import android.support.v4.view.NestedScrollingParent;
 import android.support.v4.view.animation.PathInterpolatorCompat;
 import android.support.v4.widget.NestedScrollView;
-import android.util.ArrayMap;
 import android.util.AttributeSet;
-import android.util.Property;
+import android.util.SparseArray;
+import android.view.Gravity;
 import android.view.MotionEvent;
-import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.animation.DecelerateInterpolator;
+import android.view.ViewTreeObserver;
+import android.view.Window;
 import android.webkit.WebView;
 import android.widget.FrameLayout;
 
+import jarvis.com.library.core.ResistanceCurve;
+import jarvis.com.library.core.SheetGestureCore;
+import jarvis.com.library.core.SheetSettle;
+
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author yyf @ JarvisGG.io
@@ -53,88 +68,300 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
         int BOTTOM = 0x002;
     }
 
+    @IntDef({
+            EffectProperty.ALPHA,
+            EffectProperty.SCALE,
+            EffectProperty.SCALE_X,
+            EffectProperty.SCALE_Y,
+            EffectProperty.TRANSLATION_X,
+            EffectProperty.TRANSLATION_Y,
+            EffectProperty.ELEVATION
+    })
+
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface EffectProperty {
+        int ALPHA = 0x000;
+        int SCALE = 0x001;
+        int SCALE_X = 0x002;
+        int SCALE_Y = 0x003;
+        int TRANSLATION_X = 0x004;
+        int TRANSLATION_Y = 0x005;
+        int ELEVATION = 0x006;
+    }
+
+    @IntDef({
+            SheetPhase.IDLE,
+            SheetPhase.DRAG,
+            SheetPhase.SETTLE,
+            SheetPhase.HANDOFF
+    })
+
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface SheetPhase {
+        int IDLE = 0x000;
+        int DRAG = 0x001;
+        int SETTLE = 0x002;
+        int HANDOFF = 0x003;
+    }
+
+    @IntDef({
+            OverscrollEffect.NONE,
+            OverscrollEffect.STRETCH,
+            OverscrollEffect.GLOW
+    })
+
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface OverscrollEffect {
+        int NONE = 0x000;
+        int STRETCH = 0x001;
+        int GLOW = 0x002;
+    }
+
+    @IntDef({
+            WebViewPauseMode.NONE,
+            WebViewPauseMode.RENDER,
+            WebViewPauseMode.RENDER_AND_TIMERS
+    })
+
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface WebViewPauseMode {
+        int NONE = 0x000;
+        /**
+         * WebView#onPause / onResume，暂停动画、插件等可安全暂停的处理
+         */
+        int RENDER = 0x001;
+        /**
+         * 另外 pauseTimers / resumeTimers，暂停 JS 定时器与布局；作用于整个进程的全部 WebView，
+         * 仅适合同时只有一个 web sheet 的页面
+         */
+        int RENDER_AND_TIMERS = 0x002;
+    }
+
+    /**
+     * 位图替身默认内存上限，约一张 1080 x 1920 ARGB_8888
+     */
+    private static final int DEFAULT_SNAPSHOT_MAX_BYTES = 8 * 1024 * 1024;
+
+    private static final TimeInterpolator SETTLE_INTERPOLATOR = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return SheetSettle.decelerate(input, 1.6f);
+        }
+    };
+
     private View mChildView;
 
     private ObjectAnimator mTransYAnim;
-    private ObjectAnimator currentAnimator;
+    private ValueAnimator currentAnimator;
 
-    private VelocityTracker velocityTracker;
+    /**
+     * 复用的回弹动画，起止位置与结束回调每次 recover 时写入，运行期不分配
+     */
+    private final ValueAnimator mSettleAnimator = ValueAnimator.ofFloat(0, 1);
+    private float mSettleFrom;
+    private float mSettleTo;
+    private Runnable mSettleEndAction;
 
-    private float minFlingVelocity;
+    private final SheetGestureCore mGestureCore = new SheetGestureCore(new GestureHost());
 
-    private float mTouchSlop;
+    /**
+     * 正在处理的 event，供 {@link GestureHost} 下发给 child
+     */
+    private MotionEvent mCurrentEvent;
+
+    private float mReleaseVelocityY;
+
+    /**
+     * 本次手势是否已禁止祖先拦截，竖向锁定后设置一次，手势结束时由祖先在 UP / CANCEL 中自行复位
+     */
+    private boolean mDisallowInterceptRequested;
 
-    private float mDownY;
+    /**
+     * 运动中是否允许亚像素位移，静止时仍对齐像素，默认关闭
+     */
+    private boolean mSubPixelTranslation;
 
-    private float mDownX;
+    /**
+     * 方向受限一侧的越界绘制效果，默认关闭
+     */
+    private SheetOverscroll mOverscroll;
 
-    private float mDownSheetTranslation;
+    /**
+     * 运动期间代替 child 绘制的位图替身，默认关闭
+     */
+    private SheetSnapshot mSnapshot;
 
-    private float mOriginTranslate = 0;
+    /**
+     * 本次运动已尝试过生成替身，超限时不再重复尝试
+     */
+    private boolean isSnapshotAttempted;
 
     /**
-     * 假如 cover BottomSheet 场景，sheetView ** 会 ** 从哪个方向弹出
+     * sheet 未覆盖区域的遮罩颜色，alpha 随 sheet fraction 变化，0 为关闭
      */
-    private @SheetDirection int mSheetDirection = SheetDirection.ALL;
+    private @ColorInt int mScrimColor;
+
+    private final Paint mScrimPaint = new Paint();
 
     /**
-     * 手指向上阻尼值
+     * 本次手势落在遮罩上
      */
-    private float mDampingUp = 1;
+    private boolean isScrimTouch;
+    private float mScrimDownX;
+    private float mScrimDownY;
 
     /**
-     * 手指向下阻尼值
+     * child 由 layout 因完全隐藏置为 INVISIBLE，区别于使用方自行设置的可见性
      */
-    private float mDampingDown = 1;
+    private boolean isChildHiddenByLayout;
+
+    private boolean isSheetHidden;
+
+    private final List<ISheetVisibilityChange> mSheetVisibilityCallbacks = new ArrayList<>();
+
+    private final List<ISheetViewport> mViewportCallbacks = new ArrayList<>();
 
     /**
-     ************* 键盘收起，导致 reLayout，getHeight 发生改变，所以一开始就锁定高度
+     * 最近一次发布的可见区间，去重用
      */
-    private int mTouchParentViewOriginMeasureHeight = 0;
+    private int mViewportTop = -1;
+    private int mViewportBottom = -1;
 
     /**
-     * 针对包含的子 View 为 webview 的情况
+     * 静止时按可见高度 measure child，默认关闭
      */
-    private int mWebViewContentHeight;
+    private boolean isVisibleHeightMeasure;
 
     /**
-     * 横向拖拽 dispatchTouch 给 childView
+     * child 的 measure 高度上限，-1 为不限制
      */
-    private boolean mParentOwnsTouch;
+    private int mMeasureLimit = -1;
+
+    private @WebViewPauseMode int mWebViewPauseMode = WebViewPauseMode.NONE;
 
     /**
-     * 竖向拖拽 NestedTouchScrollingLayout 是否消化 touch（根据 childView (canScrollUp or canScrollDown)）
+     * 隐藏时暂停的 WebView，显示时恢复同一批
      */
-    private boolean isHoldTouch = true;
+    private final List<WebView> mPausedWebViews = new ArrayList<>();
+
+    private float minFlingVelocity;
+
+    private float mTouchSlop;
 
-    private float mSheetTranslation;
+    /**
+     * 针对包含的子 View 为 webview 的情况
+     */
+    private int mWebViewContentHeight;
 
     /**
      * 是否允许左右滑动，下发滑动事件
      */
     private boolean isLeftorRightTouchLimit = true;
 
-    private boolean isFingerHolderTouch = false;
-
     private boolean isParentDispatchTouchEvent = true;
 
     private List<INestChildScrollChange> mNestChildScrollChangeCallbacks;
 
-    private Map<Integer, OnNestOffsetChangedListener> mOnOffsetChangedListener = new ArrayMap<>();
+    /**
+     * key 为 AppBarLayout hashCode，SparseArray 避免命中检测时装箱
+     */
+    private SparseArray<OnNestOffsetChangedListener> mOnOffsetChangedListener = new SparseArray<>();
+
+    /**
+     * 跟随 sheet fraction 变化的属性绑定，每帧统一计算一次
+     */
+    private final List<SheetEffect> mSheetEffects = new ArrayList<>();
+
+    /**
+     * 手指 -> 帧延迟探针，默认关闭
+     */
+    private TouchLatencyProbe mLatencyProbe;
+
+    /**
+     * 原始 touch 流录制
+     */
+    private MotionEventRecorder mEventRecorder;
+
+    /**
+     * async trace slice 的 cookie
+     */
+    private int mGestureCookie;
+    private int mSettleCookie;
+
+    /**
+     * DOWN 开始的 gesture slice 尚未结束
+     */
+    private boolean isGestureSliceOpen;
+
+    private TouchLatencyProbe.OnGestureLatencyListener mGestureLatencyListener;
+
+    private final List<ISheetPrefetch> mSheetPrefetches = new ArrayList<>();
+
+    /**
+     * 首帧后的空闲预热，默认关闭
+     */
+    private PrewarmIdleHandler mPrewarm;
+    private boolean isPrewarmPending;
+
+    /**
+     * 延迟加载模式下内容就绪前占位的 child
+     */
+    private View mLazyPlaceholder;
+    private @LayoutRes int mLazyContentRes;
+    private OnContentInflatedListener mContentInflatedListener;
+    private ContentInflater mContentInflater;
+    private boolean isContentInflating;
+    private boolean isLazyContentPending;
+
+    /**
+     * 内容就绪前被请求的回弹，就绪后补上
+     */
+    private boolean hasPendingRecover;
+    private int mPendingTarget;
+    private Runnable mPendingEndAction;
+    private int mPendingTime;
 
+    private final MessageQueue.IdleHandler mLazyContentIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            inflateLazyContent();
+            return false;
+        }
+    };
 
-    private final Property<NestedTouchScrollingLayout, Float> SHEET_TRANSLATION = new Property<NestedTouchScrollingLayout, Float>(Float.class, "sheetTranslation") {
+    private final AsyncLayoutInflater.OnInflateFinishedListener mLazyContentInflated = new AsyncLayoutInflater.OnInflateFinishedListener() {
         @Override
-        public Float get(NestedTouchScrollingLayout object) {
-            return mTouchParentViewOriginMeasureHeight - object.mSheetTranslation;
+        public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+            isContentInflating = false;
+            attachLazyContent(view);
         }
+    };
+
+    /**
+     * 分阶段掉帧统计，默认关闭
+     */
+    private SheetJankMonitor mJankMonitor;
+
+    /**
+     * 可滚动子孙的扁平索引，默认关闭，开启后 canScroll* 命中检测走索引
+     */
+    private ScrollableIndex mScrollableIndex;
 
+    /**
+     * 滚动、布局与位移都会在下一次绘制前触发，此时刷新候选区域，触摸时直接使用
+     */
+    private final ViewTreeObserver.OnPreDrawListener mIndexPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
         @Override
-        public void set(NestedTouchScrollingLayout object, Float value) {
-            object.seAnimtTranslation(value);
+        public boolean onPreDraw() {
+            if (!mScrollableIndex.isDirty() && mScrollableIndex.size() > 0) {
+                mScrollableIndex.refreshBounds();
+            }
+            return true;
         }
     };
 
+
+
     public void setLeftorRightTouchLimit(boolean leftorRightTouchLimit) {
         this.isLeftorRightTouchLimit = leftorRightTouchLimit;
     }
@@ -153,6 +380,74 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
         void onNestChildHorizationScroll(MotionEvent event, float deltaX, float deltaY);
     }
 
+    /**
+     * sheet 可见性生命周期
+     */
+    public interface ISheetVisibilityChange {
+        /**
+         * 从完全隐藏变为部分可见
+         */
+        void onSheetVisible();
+
+        /**
+         * 完全移出 layout
+         */
+        void onSheetHidden();
+
+        /**
+         * 回弹动画结束，sheet 停在 offset
+         * @param offset
+         */
+        void onSheetSettled(int offset);
+    }
+
+    /**
+     * child 在 layout 内的可见区间，child 坐标系；只在静止与运动开始时回调，运动中不逐帧回调
+     */
+    public interface ISheetViewport {
+        /**
+         * 静止时为实际可见区间；运动开始时为本次运动可能覆盖的最大区间（回弹取起止的并集，拖拽取整个 child）
+         * @param top
+         * @param bottom
+         */
+        void onViewportChanged(int top, int bottom);
+    }
+
+    /**
+     * 延迟加载的内容已挂到 layout 上，此时绑定数据
+     */
+    public interface OnContentInflatedListener {
+        void onContentInflated(View content);
+    }
+
+    /**
+     * 延迟内容的 inflate 方式，默认交给 AsyncLayoutInflater
+     */
+    interface ContentInflater {
+        void inflate(@LayoutRes int layoutRes, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener listener);
+    }
+
+    /**
+     * 回弹目标一经确定即发布，供内容在动画的前几帧空闲时间里提前准备即将可见的部分
+     */
+    public interface ISheetPrefetch {
+        /**
+         * recover / expand / peek / hiden 启动回弹前调用
+         * @param layout
+         * @param from 当前位移
+         * @param target 回弹目标位移
+         * @param duration 动画时长，ms
+         */
+        void onSettleTarget(NestedTouchScrollingLayout layout, int from, int target, long duration);
+
+        /**
+         * 回弹结束或被打断；松手后未发起回弹、直接静止时也以 canceled = false 回调
+         * @param layout
+         * @param canceled
+         */
+        void onSettleEnd(NestedTouchScrollingLayout layout, boolean canceled);
+    }
+
     public NestedTouchScrollingLayout(@NonNull Context context) {
         super(context);
         init();
@@ -177,11 +472,14 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     private void init() {
         mNestChildScrollChangeCallbacks = new ArrayList<>();
         mTouchSlop = ViewConfiguration.get(getContext()).getScaledTouchSlop();
+        mGestureCore.setTouchSlop(mTouchSlop);
+        initSettleAnimator();
 
         post(new Runnable() {
             @Override
             public void run() {
-                mTouchParentViewOriginMeasureHeight = NestedTouchScrollingLayout.this.getMeasuredHeight();
+                mGestureCore.setHeight(NestedTouchScrollingLayout.this.getMeasuredHeight());
+                applySheetEffects(currentTranslation());
             }
         });
     }
@@ -243,18 +541,63 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        velocityTracker = VelocityTracker.obtain();
+        if (mLatencyProbe != null) {
+            mLatencyProbe.attach(getHostWindow());
+        }
+        if (mJankMonitor != null) {
+            mJankMonitor.attach(getHostWindow(), getViewTreeObserver(), getDisplay() == null ? 0 : getDisplay().getRefreshRate());
+        }
+        if (mScrollableIndex != null) {
+            attachScrollableIndex();
+        }
+        if (isSheetHidden) {
+            pauseWebViews();
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         clearNestScrollChildCallback();
-        velocityTracker.clear();
+        endGestureSlice();
+        if (mLatencyProbe != null) {
+            mLatencyProbe.detach();
+        }
+        if (mJankMonitor != null) {
+            mJankMonitor.detach();
+        }
+        if (mScrollableIndex != null) {
+            detachScrollableIndex();
+        }
+        if (mPrewarm != null && !mPrewarm.isDone()) {
+            Looper.myQueue().removeIdleHandler(mPrewarm);
+            isPrewarmPending = true;
+        }
+        if (mLazyPlaceholder != null && !isContentInflating) {
+            Looper.myQueue().removeIdleHandler(mLazyContentIdleHandler);
+            isLazyContentPending = true;
+        }
+        // timers 是进程级的，离开窗口时不能留在暂停状态
+        resumeWebViews();
+        releaseSnapshot();
+    }
+
+    private Window getHostWindow() {
+        Context context = getContext();
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return ((Activity) context).getWindow();
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
     }
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
+        if (mEventRecorder != null) {
+            mEventRecorder.record(ev);
+        }
         return super.dispatchTouchEvent(ev);
     }
 
@@ -269,27 +612,51 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        SheetTrace.beginSection("NTSL#onTouchEvent");
+        try {
+            return handleTouchEvent(event);
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
         float velocityY = 0;
         if (getChildAt(0) == null || !isParentDispatchTouchEvent) {
             return super.onTouchEvent(event);
         }
         if (isAnimating()) {
+            if (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL) {
+                // 手势中途被 recover 接管，后续事件不再进入下面的 UP 分支
+                endGestureSlice();
+                if (mLatencyProbe != null) {
+                    mLatencyProbe.onGestureEnd();
+                }
+            }
             return false;
         }
 
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+        if (mScrimColor != 0 && handleScrimTouch(event)) {
+            return true;
+        }
 
-            mOriginTranslate = mChildView.getTranslationY();
-            mTouchParentViewOriginMeasureHeight = this.getMeasuredHeight();
+        if (mLatencyProbe != null) {
+            if (event.getAction() == MotionEvent.ACTION_DOWN) {
+                mLatencyProbe.onGestureStart();
+            }
+            mLatencyProbe.onInputEvent(event.getEventTime());
+        }
+
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
 
-            mParentOwnsTouch = false;
-            mDownY = event.getY();
-            mDownX = event.getX();
-            mSheetTranslation = mTouchParentViewOriginMeasureHeight - mOriginTranslate;
-            mDownSheetTranslation = mSheetTranslation;
-            velocityTracker.clear();
+            endGestureSlice();
+            mGestureCookie++;
+            mDisallowInterceptRequested = false;
+            isSnapshotAttempted = false;
+            isGestureSliceOpen = true;
+            SheetTrace.beginAsyncSection("NTSL#gesture", mGestureCookie);
 
-            isFingerHolderTouch = true;
+            mGestureCore.onDown(event.getX(), event.getY(), mChildView.getTranslationY(), this.getMeasuredHeight());
 
             if (mChildView instanceof WebView) {
                 mWebViewContentHeight = (int) (((WebView)mChildView).getContentHeight() * ((WebView)mChildView).getScale());
@@ -297,100 +664,208 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
         }
 
         if (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL) {
-            isFingerHolderTouch = false;
-            velocityTracker.computeCurrentVelocity(1000);
-            velocityY = velocityTracker.getYVelocity();
+            releaseOverscroll();
+            mGestureCore.onFingerUp();
+            velocityY = mGestureCore.computeVelocity();
             notifyOnFingerUp(velocityY);
+            endGestureSlice();
         }
 
-        getParent().requestDisallowInterceptTouchEvent(true);
-
-        velocityTracker.addMovement(event);
-
-        float maxSheetTranslation = mTouchParentViewOriginMeasureHeight;
+        for (int h = 0; h < event.getHistorySize(); h++) {
+            mGestureCore.addMovement(event.getHistoricalEventTime(h), event.getHistoricalY(h));
+        }
+        mGestureCore.addMovement(event.getEventTime(), event.getY());
+        if (SheetTrace.isEnabled() && event.getAction() == MotionEvent.ACTION_MOVE) {
+            SheetTrace.setCounter("NTSL#velocityY", (int) mGestureCore.computeVelocity());
+        }
 
-        float deltaY = mDownY - event.getY();
-        float deltaX = mDownX - event.getX();
+        float deltaY = mGestureCore.getDownY() - event.getY();
+        float deltaX = mGestureCore.getDownX() - event.getX();
 
-        if ((!canScrollLeft(getChildAt(0), event.getX(), event.getX()) &&
-                !canScrollRight(getChildAt(0), event.getX(), event.getY()) &&
-                !isLeftorRightTouchLimit) ||
-                (event.getAction() == MotionEvent.ACTION_UP ||
-                        event.getAction() == MotionEvent.ACTION_CANCEL)) {
+        // 先做廉价判断，点击与竖向拖拽不触发横向可滚动探测
+        if (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL) {
+            interceptHorizontalTouch(event, deltaX, deltaY);
+        } else if (!isLeftorRightTouchLimit
+                && mGestureCore.getAxisState() != SheetGestureCore.AXIS_VERTICAL
+                && Math.abs(deltaX) > mTouchSlop * 8
+                && !traceCanScrollLeft(getChildAt(0), event.getX(), event.getY())
+                && !traceCanScrollRight(getChildAt(0), event.getX(), event.getY())) {
             interceptHorizontalTouch(event, deltaX, deltaY);
         }
 
-        if (!mParentOwnsTouch) {
-            mParentOwnsTouch = Math.abs(deltaY) > 0 && Math.abs(deltaY) > Math.abs(deltaX);
-
-            if (mParentOwnsTouch) {
+        mCurrentEvent = event;
+        mReleaseVelocityY = velocityY;
+        try {
+            mGestureCore.onTouchEvent(event.getAction(), event.getX(), event.getY());
+        } finally {
+            mCurrentEvent = null;
+        }
 
-                mDownY = event.getY();
-                mDownX = event.getX();
-                deltaY = 0;
-                deltaX = 0;
-            }
+        // 竖向锁定前祖先（如 ViewPager）仍可拦截横滑；锁定后只协商一次
+        if (!mDisallowInterceptRequested && mGestureCore.isParentOwnsTouch() && getParent() != null) {
+            mDisallowInterceptRequested = true;
+            getParent().requestDisallowInterceptTouchEvent(true);
         }
 
-        float newSheetTranslation = mDownSheetTranslation + deltaY;
+        if (mLatencyProbe != null
+                && (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL)) {
+            mLatencyProbe.onGestureEnd();
+        }
+        if (mJankMonitor != null) {
+            mJankMonitor.setPhase(getSheetPhase());
+        }
+        return true;
+    }
 
-        if (mParentOwnsTouch) {
+    private void endGestureSlice() {
+        if (isGestureSliceOpen) {
+            isGestureSliceOpen = false;
+            SheetTrace.endAsyncSection("NTSL#gesture", mGestureCookie);
+        }
+    }
 
+    /**
+     * 遮罩只画在 sheet 未覆盖的区域，一次 drawRect，alpha 直接取自 sheet 位移
+     */
+    private void drawScrim(Canvas canvas) {
+        if (mScrimColor == 0 || mChildView == null || getHeight() == 0) {
+            return;
+        }
+        float offset = mChildView.getTranslationY();
+        float fraction = 1 - Math.min(1, Math.abs(offset) / getHeight());
+        int alpha = (int) (Color.alpha(mScrimColor) * fraction);
+        if (alpha <= 0) {
+            return;
+        }
+        mScrimPaint.setColor(mScrimColor);
+        mScrimPaint.setAlpha(alpha);
+        float top = mChildView.getTop() + offset;
+        float bottom = mChildView.getBottom() + offset;
+        if (top > 0) {
+            canvas.drawRect(0, 0, getWidth(), top, mScrimPaint);
+        }
+        if (bottom < getHeight()) {
+            canvas.drawRect(0, bottom, getWidth(), getHeight(), mScrimPaint);
+        }
+    }
 
-            if (isHoldTouch && !isChildCanScroll(event, deltaY) && deltaY != 0) {
-                mDownY = event.getY();
-                velocityTracker.clear();
-                isHoldTouch = false;
-                newSheetTranslation = mSheetTranslation;
+    /**
+     * 遮罩上的点击收起 sheet，遮罩上的拖动被消费
+     * @return 是否由遮罩消费
+     */
+    private boolean handleScrimTouch(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                isScrimTouch = isInScrim(event.getY());
+                mScrimDownX = event.getX();
+                mScrimDownY = event.getY();
+                return isScrimTouch;
+            case MotionEvent.ACTION_UP:
+                if (!isScrimTouch) {
+                    return false;
+                }
+                isScrimTouch = false;
+                if (Math.hypot(event.getX() - mScrimDownX, event.getY() - mScrimDownY) <= mTouchSlop) {
+                    hiden();
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                if (!isScrimTouch) {
+                    return false;
+                }
+                isScrimTouch = false;
+                return true;
+            default:
+                return isScrimTouch;
+        }
+    }
 
-                MotionEvent cancelEvent = MotionEvent.obtain(event);
-                cancelEvent.setAction(MotionEvent.ACTION_CANCEL);
-                getChildAt(0).dispatchTouchEvent(cancelEvent);
-                cancelEvent.recycle();
-            }
+    private boolean isInScrim(float y) {
+        if (mChildView == null) {
+            return false;
+        }
+        float offset = mChildView.getTranslationY();
+        if (Math.abs(offset) >= getHeight()) {
+            return false;
+        }
+        return y < mChildView.getTop() + offset || y > mChildView.getBottom() + offset;
+    }
 
-            if (!isHoldTouch && isChildCanScroll(event, deltaY) && deltaY != 0) {
-                setSheetTranslation(maxSheetTranslation);
-                isHoldTouch = true;
-                if (event.getAction() == MotionEvent.ACTION_MOVE) {
-                    MotionEvent downEvent = MotionEvent.obtain(event);
-                    downEvent.setAction(MotionEvent.ACTION_DOWN);
-                    getChildAt(0).dispatchTouchEvent(downEvent);
-                    downEvent.recycle();
-                }
-            }
+    /**
+     * 当前所处阶段
+     * @return
+     */
+    public @SheetPhase int getSheetPhase() {
+        if (isAnimating()) {
+            return SheetPhase.SETTLE;
+        }
+        if (mGestureCore.isFingerHolderTouch()) {
+            return mGestureCore.isParentOwnsTouch() && !mGestureCore.isHoldTouch() ? SheetPhase.DRAG : SheetPhase.HANDOFF;
+        }
+        return SheetPhase.IDLE;
+    }
 
-            if (isHoldTouch && deltaY != 0) {
-                event.offsetLocation(0, mSheetTranslation - mTouchParentViewOriginMeasureHeight);
-                getChildAt(0).dispatchTouchEvent(event);
-            } else {
-                setSheetTranslation(newSheetTranslation);
-
-                if (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL) {
-                    isHoldTouch = true;
-                    getParent().requestDisallowInterceptTouchEvent(false);
-
-                    if (Math.abs(velocityY) < minFlingVelocity) {
-                        if (mSheetTranslation > getHeight() / 2) { } else { }
-                    } else {
-                        if (velocityY < 0) { } else { }
-                    }
-                    notifyNestScrollChildReleaseCallback((int) velocityY);
-                }
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        drawScrim(canvas);
+        if (mOverscroll != null && mOverscroll.isActive()) {
+            int save = canvas.save();
+            mOverscroll.beforeChildDraw(canvas, getHeight());
+            super.dispatchDraw(canvas);
+            canvas.restoreToCount(save);
+            if (mOverscroll.afterChildDraw(canvas, getWidth(), getHeight())) {
+                postInvalidateOnAnimation();
             }
         } else {
-            event.offsetLocation(0, mSheetTranslation - mTouchParentViewOriginMeasureHeight);
-            getChildAt(0).dispatchTouchEvent(event);
+            super.dispatchDraw(canvas);
+        }
+        if (mJankMonitor != null) {
+            mJankMonitor.onDraw();
+        }
+        if (isPrewarmPending) {
+            isPrewarmPending = false;
+            Looper.myQueue().addIdleHandler(mPrewarm);
+        }
+        if (isLazyContentPending) {
+            isLazyContentPending = false;
+            Looper.myQueue().addIdleHandler(mLazyContentIdleHandler);
+        }
+    }
+
+    private boolean traceCanScrollUp(View view, float x, float y) {
+        SheetTrace.beginSection("NTSL#canScrollUp");
+        try {
+            return isScrollableIndexReady() ? indexCanScrollVertically(-1, x, y, false) : canScrollUp(view, x, y, false);
+        } finally {
+            SheetTrace.endSection();
         }
-        return true;
     }
 
-    private boolean isChildCanScroll(MotionEvent event, float deltaY) {
-        boolean fingerDown = deltaY - mOriginTranslate < 0;
-        boolean canScrollDown = canScrollDown(getChildAt(0), event.getX(), event.getY() + (mSheetTranslation - getHeight()), false);
-        boolean fingerUp = deltaY - mOriginTranslate > 0;
-        boolean canScrollUp = canScrollUp(getChildAt(0), event.getX(), event.getY() + (mSheetTranslation - getHeight()), false);
-        return (fingerDown && canScrollUp) || (fingerUp && canScrollDown);
+    private boolean traceCanScrollDown(View view, float x, float y) {
+        SheetTrace.beginSection("NTSL#canScrollDown");
+        try {
+            return isScrollableIndexReady() ? indexCanScrollVertically(1, x, y, false) : canScrollDown(view, x, y, false);
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private boolean traceCanScrollLeft(View view, float x, float y) {
+        SheetTrace.beginSection("NTSL#canScrollLeft");
+        try {
+            return isScrollableIndexReady() ? indexCanScrollHorizontally(-1, x, y) : canScrollLeft(view, x, y);
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private boolean traceCanScrollRight(View view, float x, float y) {
+        SheetTrace.beginSection("NTSL#canScrollRight");
+        try {
+            return isScrollableIndexReady() ? indexCanScrollHorizontally(1, x, y) : canScrollRight(view, x, y);
+        } finally {
+            SheetTrace.endSection();
+        }
     }
 
     /**
@@ -422,16 +897,8 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
             }
         }
 
-        if (view instanceof CoordinatorLayout &&
-                ((CoordinatorLayout) view).getChildCount() > 0 &&
-                ((CoordinatorLayout) view).getChildAt(0) instanceof AppBarLayout) {
-            AppBarLayout layout = (AppBarLayout) ((CoordinatorLayout) view).getChildAt(0);
-            OnNestOffsetChangedListener listener = mOnOffsetChangedListener.get(layout.hashCode());
-            if (listener != null) {
-                if (listener.getOffsetY() < layout.getMeasuredHeight() && listener.getOffsetY() > 0) {
-                    return true;
-                }
-            }
+        if (isAppBarScrolling(view)) {
+            return true;
         }
 
         return view.canScrollVertically(-1);
@@ -465,22 +932,107 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
             }
         }
 
-        if (view instanceof CoordinatorLayout &&
-                ((CoordinatorLayout) view).getChildCount() > 0 &&
-                ((CoordinatorLayout) view).getChildAt(0) instanceof AppBarLayout) {
-            AppBarLayout layout = (AppBarLayout) ((CoordinatorLayout) view).getChildAt(0);
-            OnNestOffsetChangedListener listener = mOnOffsetChangedListener.get(layout.hashCode());
-            if (listener != null) {
-                if (listener.getOffsetY() < layout.getMeasuredHeight() && listener.getOffsetY() > 0) {
-                    return true;
+        if (isAppBarScrolling(view)) {
+            return true;
+        }
+
+        return view.canScrollVertically(1);
+    }
+
+    /**
+     * CoordinatorLayout 中 AppBarLayout 处于半折叠状态
+     * @param view
+     * @return
+     */
+    private boolean isAppBarScrolling(View view) {
+        if (view instanceof CoordinatorLayout &&
+                ((CoordinatorLayout) view).getChildCount() > 0 &&
+                ((CoordinatorLayout) view).getChildAt(0) instanceof AppBarLayout) {
+            AppBarLayout layout = (AppBarLayout) ((CoordinatorLayout) view).getChildAt(0);
+            OnNestOffsetChangedListener listener = mOnOffsetChangedListener.get(layout.hashCode());
+            if (listener != null) {
+                return listener.getOffsetY() < layout.getMeasuredHeight() && listener.getOffsetY() > 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只在 layout 阶段与空闲预热时完整收集，触摸路径上索引未就绪时退回递归查找
+     */
+    private void ensureScrollableIndex() {
+        if (mScrollableIndex.isDirty() || mScrollableIndex.getRoot() != getChildAt(0)) {
+            SheetTrace.beginSection("NTSL#rebuildScrollableIndex");
+            try {
+                mScrollableIndex.rebuild(getChildAt(0));
+            } finally {
+                SheetTrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * 索引版 canScrollUp / canScrollDown
+     * @param direction 负数向上，正数向下
+     * @param x
+     * @param y
+     * @param lockRect 是否开启 touch 所动在当前 view 区域
+     * @return
+     */
+    private boolean indexCanScrollVertically(int direction, float x, float y, boolean lockRect) {
+        ensureScrollableBounds();
+        for (int i = 0, size = mScrollableIndex.size(); i < size; i++) {
+            if (lockRect && mScrollableIndex.topAt(i) >= y) {
+                break;
+            }
+            if (!mScrollableIndex.isShownAt(i)
+                    || !mScrollableIndex.hasAxis(i, ScrollableIndex.AXIS_VERTICAL)
+                    || (lockRect && !mScrollableIndex.contains(i, x, y))) {
+                continue;
+            }
+            View view = mScrollableIndex.viewAt(i);
+            if (view instanceof WebView) {
+                if (direction < 0 ? canWebViewScrollUp() : canWebViewScrollDown()) {
+                    return true;
                 }
+                continue;
+            }
+            if (isAppBarScrolling(view) || view.canScrollVertically(direction)) {
+                return true;
             }
         }
+        return false;
+    }
 
-        return view.canScrollVertically(1);
+    /**
+     * 索引版 canScrollLeft / canScrollRight
+     * @param direction 负数向左，正数向右
+     * @param x
+     * @param y
+     * @return
+     */
+    private boolean indexCanScrollHorizontally(int direction, float x, float y) {
+        ensureScrollableBounds();
+        for (int i = 0, size = mScrollableIndex.size(); i < size && mScrollableIndex.topAt(i) < y; i++) {
+            if (mScrollableIndex.contains(i, x, y)
+                    && mScrollableIndex.hasAxis(i, ScrollableIndex.AXIS_HORIZONTAL)
+                    && mScrollableIndex.viewAt(i).canScrollHorizontally(direction)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean canScrollLeft(View view, float x, float y) {
+    /**
+     * 候选在上次绘制后有增删时，只按候选父链刷新区域
+     */
+    private void ensureScrollableBounds() {
+        if (mScrollableIndex.isBoundsDirty()) {
+            mScrollableIndex.refreshBounds();
+        }
+    }
+
+    protected boolean canScrollLeft(View view, float x, float y) {
         if (view instanceof ViewGroup) {
             ViewGroup vg = (ViewGroup) view;
             for (int i = 0; i < vg.getChildCount(); i++) {
@@ -498,7 +1050,7 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
         return view.canScrollHorizontally(-1);
     }
 
-    private boolean canScrollRight(View view, float x, float y) {
+    protected boolean canScrollRight(View view, float x, float y) {
         if (view instanceof ViewGroup) {
             ViewGroup vg = (ViewGroup) view;
             for (int i = 0; i < vg.getChildCount(); i++) {
@@ -543,35 +1095,339 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     }
 
 
-    private void setSheetTranslation(float newTranslation) {
-        this.mSheetTranslation = newTranslation;
-        int bottomClip = (int) (mTouchParentViewOriginMeasureHeight - Math.ceil(mSheetTranslation));
-        setTranslation(bottomClip);
+    private void applyTranslation(float transY) {
+        applyTranslation(transY, !mSubPixelTranslation);
+    }
+
+    /**
+     * 屏幕上的位移未变化时跳过属性写入、RenderNode 更新与全部回调
+     * @param transY
+     * @param snap 是否对齐到像素
+     */
+    private void applyTranslation(float transY, boolean snap) {
+        float offset = snap ? Math.round(transY) : transY;
+        if (mChildView != null && mChildView.getTranslationY() == offset) {
+            return;
+        }
+        SheetTrace.beginSection("NTSL#setTranslation");
+        try {
+            notifyNestScrollChildChangeCallback(offset);
+            if (mChildView != null) {
+                mChildView.setTranslationY(offset);
+                updateChildVisibility(offset);
+            }
+            applySheetEffects(offset);
+            if (mScrimColor != 0) {
+                invalidate();
+            }
+            SheetTrace.setCounter("NTSL#sheetOffset", (int) offset);
+            if (mLatencyProbe != null) {
+                mLatencyProbe.onTranslationApplied();
+            }
+            if (mJankMonitor != null) {
+                mJankMonitor.onTranslationChanged();
+            }
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    /**
+     * 完全移出后置为 INVISIBLE，不再录制绘制、不参与无障碍；保留 layout 结果与 View 状态，
+     * 再次移入的那一帧恢复 VISIBLE，无需重新 measure / layout
+     * @param offset
+     */
+    private void updateChildVisibility(float offset) {
+        boolean hidden = getHeight() > 0 && Math.abs(offset) >= getHeight();
+        if (hidden != isSheetHidden) {
+            isSheetHidden = hidden;
+            if (hidden) {
+                pauseWebViews();
+                notifySheetHidden();
+            } else {
+                resumeWebViews();
+                notifySheetVisible();
+            }
+        }
+        if (hidden && mChildView.getVisibility() == VISIBLE) {
+            mChildView.setVisibility(INVISIBLE);
+            isChildHiddenByLayout = true;
+        } else if (!hidden && isChildHiddenByLayout) {
+            isChildHiddenByLayout = false;
+            if (mChildView.getVisibility() == INVISIBLE) {
+                mChildView.setVisibility(VISIBLE);
+            }
+        }
+    }
+
+    private void captureSnapshot() {
+        if (mSnapshot == null || isSnapshotAttempted || mChildView == null || mChildView.getVisibility() != VISIBLE
+                || mChildView.isLayoutRequested() || !SheetSnapshot.canReplace(mChildView)) {
+            // 待 relayout 的 child 当前绘制已过期
+            return;
+        }
+        isSnapshotAttempted = true;
+        if (mSnapshot.capture(mChildView)) {
+            invalidate();
+        }
+    }
+
+    private void releaseSnapshot() {
+        if (mSnapshot != null && mSnapshot.isCaptured()) {
+            mSnapshot.release();
+            invalidate();
+        }
+    }
+
+    boolean isSnapshotCaptured() {
+        return mSnapshot != null && mSnapshot.isCaptured();
+    }
+
+    /**
+     * 纵向只绘制落在 layout 内的部分：clipChildren 关闭时（例如为了阴影）child 移出底边的部分不再栅格化，
+     * 横向不裁剪，保留阴影等越界绘制
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (child != mChildView) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        int save = canvas.save();
+        canvas.clipRect(-getWidth(), 0, getWidth() * 2, getHeight());
+        try {
+            if (mSnapshot != null && mSnapshot.isCaptured()) {
+                if (SheetSnapshot.canReplace(child)) {
+                    mSnapshot.draw(canvas, child);
+                    return false;
+                }
+                // 运动中 child 被抬起了阴影（例如 bindSheetEffect 驱动 elevation），本次运动改回实时绘制
+                mSnapshot.release();
+            }
+            return super.drawChild(canvas, child, drawingTime);
+        } finally {
+            canvas.restoreToCount(save);
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        applyMeasureLimit();
+    }
+
+    /**
+     * child 已按完整高度 measure 后，按上限重新 measure
+     */
+    private void applyMeasureLimit() {
+        if (mMeasureLimit < 0 || mChildView == null || mChildView.getVisibility() == GONE
+                || mChildView.getMeasuredHeight() <= mMeasureLimit) {
+            return;
+        }
+        FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) mChildView.getLayoutParams();
+        int gravity = lp.gravity == -1 ? Gravity.TOP : lp.gravity & Gravity.VERTICAL_GRAVITY_MASK;
+        if (gravity != Gravity.TOP) {
+            // 只有顶部对齐时截短底部不会移动可见内容
+            return;
+        }
+        mChildView.measure(MeasureSpec.makeMeasureSpec(mChildView.getMeasuredWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(mMeasureLimit, MeasureSpec.EXACTLY));
     }
 
-    private void seAnimtTranslation(float transY) {
-        this.mSheetTranslation = mTouchParentViewOriginMeasureHeight - transY;
-        setTranslation(transY);
+    /**
+     * offset 位移时 child 从顶部起在 layout 内的可见高度，未截断
+     */
+    private int visibleHeight(float offset) {
+        return Math.max(0, (int) Math.ceil(getHeight() - getPaddingBottom() - mChildView.getTop() - offset));
     }
 
-    private void setTranslation(float transY) {
-        if (mSheetDirection == SheetDirection.BOTTOM && transY < 0) {
-            mChildView.setTranslationY(0);
+    private void updateRestingMeasureLimit() {
+        if (!isVisibleHeightMeasure || mChildView == null) {
+            return;
+        }
+        float offset = mChildView.getTranslationY();
+        if (getHeight() > 0 && offset >= getHeight()) {
+            // 完全隐藏时已是 INVISIBLE，不再截断，保留上一次的高度，展开时不必重新绑定整屏内容
             return;
         }
-        if (mSheetDirection == SheetDirection.TOP && transY > 0) {
-            mChildView.setTranslationY(0);
+        // 向上移出（top sheet）时可见的是底部，不截断
+        updateMeasureLimit(offset > 0 ? visibleHeight(offset) : -1);
+    }
+
+    private void updateMeasureLimit(int limit) {
+        if (limit == mMeasureLimit) {
             return;
         }
-        transY = transY > 0 ? transY * mDampingDown : transY * mDampingUp;
-        notifyNestScrollChildChangeCallback(transY);
-        if (mChildView != null) {
-            mChildView.setTranslationY(transY);
+        if (mMeasureLimit >= 0 && (limit < 0 || limit > mMeasureLimit)) {
+            // 替身是按旧高度录制的
+            releaseSnapshot();
+        }
+        mMeasureLimit = limit;
+        requestLayout();
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        if (mScrollableIndex != null) {
+            ensureScrollableIndex();
         }
-        if (transY == 0) {
-            mDownSheetTranslation = mTouchParentViewOriginMeasureHeight;
-            mDownY -= mOriginTranslate;
-            mOriginTranslate = 0;
+        if (!isAnimating() && !mGestureCore.isFingerHolderTouch()) {
+            publishRestingViewport();
+        }
+    }
+
+    /**
+     * child 坐标系下 offset 位移时可见区间的上沿
+     */
+    private int viewportTop(float offset) {
+        int top = (int) (-(mChildView.getTop() + offset));
+        return Math.max(0, Math.min(mChildView.getHeight(), top));
+    }
+
+    private int viewportBottom(float offset) {
+        int bottom = (int) Math.ceil(getHeight() - (mChildView.getTop() + offset));
+        return Math.max(0, Math.min(mChildView.getHeight(), bottom));
+    }
+
+    private void publishRestingViewport() {
+        if (mChildView == null) {
+            return;
+        }
+        float offset = mChildView.getTranslationY();
+        publishViewport(viewportTop(offset), viewportBottom(offset));
+    }
+
+    private void publishSettleViewport(float from, float to) {
+        if (mChildView == null) {
+            return;
+        }
+        publishViewport(Math.min(viewportTop(from), viewportTop(to)), Math.max(viewportBottom(from), viewportBottom(to)));
+    }
+
+    private void publishViewport(int top, int bottom) {
+        if (mViewportCallbacks.isEmpty() || (top == mViewportTop && bottom == mViewportBottom)) {
+            return;
+        }
+        mViewportTop = top;
+        mViewportBottom = bottom;
+        for (int i = 0, size = mViewportCallbacks.size(); i < size; i++) {
+            mViewportCallbacks.get(i).onViewportChanged(top, bottom);
+        }
+    }
+
+    public void registerViewportCallback(ISheetViewport callback) {
+        if (!mViewportCallbacks.contains(callback)) {
+            mViewportCallbacks.add(callback);
+            mViewportTop = -1;
+            mViewportBottom = -1;
+            if (!isAnimating() && !mGestureCore.isFingerHolderTouch()) {
+                publishRestingViewport();
+            }
+        }
+    }
+
+    public void removeViewportCallback(ISheetViewport callback) {
+        mViewportCallbacks.remove(callback);
+    }
+
+    private void releaseOverscroll() {
+        if (mOverscroll != null && mOverscroll.isPulling()) {
+            mOverscroll.onRelease();
+            postInvalidateOnAnimation();
+        }
+    }
+
+    /**
+     * 静止时把亚像素位移对齐到像素
+     */
+    private void snapTranslation() {
+        if (mSubPixelTranslation && mChildView != null) {
+            applyTranslation(mChildView.getTranslationY(), true);
+        }
+    }
+
+    /**
+     * 手势核心与 View 体系之间的适配
+     */
+    private final class GestureHost implements SheetGestureCore.Host {
+
+        @Override
+        public int getLayoutHeight() {
+            return getHeight();
+        }
+
+        @Override
+        public boolean canChildScrollUp(float x, float y) {
+            return traceCanScrollUp(getChildAt(0), x, y);
+        }
+
+        @Override
+        public boolean canChildScrollDown(float x, float y) {
+            return traceCanScrollDown(getChildAt(0), x, y);
+        }
+
+        @Override
+        public void forwardToChild(float offsetY) {
+            releaseSnapshot();
+            mCurrentEvent.offsetLocation(0, offsetY);
+            getChildAt(0).dispatchTouchEvent(mCurrentEvent);
+        }
+
+        @Override
+        public void cancelChild() {
+            MotionEvent cancelEvent = MotionEvent.obtain(mCurrentEvent);
+            cancelEvent.setAction(MotionEvent.ACTION_CANCEL);
+            getChildAt(0).dispatchTouchEvent(cancelEvent);
+            cancelEvent.recycle();
+        }
+
+        @Override
+        public void restartChild() {
+            releaseSnapshot();
+            MotionEvent downEvent = MotionEvent.obtain(mCurrentEvent);
+            downEvent.setAction(MotionEvent.ACTION_DOWN);
+            getChildAt(0).dispatchTouchEvent(downEvent);
+            downEvent.recycle();
+        }
+
+        @Override
+        public void resetChildTranslation() {
+            applyTranslation(0);
+        }
+
+        @Override
+        public void onOverscroll(float distance) {
+            if (mOverscroll != null) {
+                mOverscroll.onPull(distance, getWidth(), getHeight());
+                postInvalidateOnAnimation();
+            }
+        }
+
+        @Override
+        public void onTranslationChanged(float transY) {
+            releaseOverscroll();
+            if (mGestureCore.isFingerHolderTouch()) {
+                if (mMeasureLimit >= 0 && visibleHeight(transY) > mMeasureLimit) {
+                    // 向上拖出了已 measure 的部分，恢复完整高度，拖拽中不再反复 relayout
+                    updateMeasureLimit(-1);
+                }
+                captureSnapshot();
+                publishViewport(0, mChildView == null ? 0 : mChildView.getHeight());
+            }
+            applyTranslation(transY);
+        }
+
+        @Override
+        public void onRelease() {
+            snapTranslation();
+            notifyNestScrollChildReleaseCallback((int) mReleaseVelocityY);
+            if (!isAnimating()) {
+                // 回调里没有发起回弹，已经静止
+                releaseSnapshot();
+                updateRestingMeasureLimit();
+                publishRestingViewport();
+                notifySettleEnd(false);
+            }
         }
     }
 
@@ -588,22 +1444,244 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     }
 
     public void recover(int target, final Runnable runnable, int time) {
-        currentAnimator = ObjectAnimator.ofFloat(this, SHEET_TRANSLATION, target);
-        currentAnimator.setDuration(time);
-        currentAnimator.setInterpolator(new DecelerateInterpolator(1.6f));
-        currentAnimator.addListener(new CancelDetectionAnimationListener() {
+        hasPendingRecover = false;
+        if (mLazyPlaceholder != null && Math.abs(target) < getMeasuredHeight()) {
+            // 内容还未就绪，就绪后再开始回弹，避免展开的前几帧同步 inflate
+            hasPendingRecover = true;
+            mPendingTarget = target;
+            mPendingEndAction = runnable;
+            mPendingTime = time;
+            inflateLazyContent();
+            return;
+        }
+        if (mSettleAnimator.isRunning()) {
+            mSettleAnimator.cancel();
+        }
+        SheetTrace.beginAsyncSection("NTSL#settle", ++mSettleCookie);
+        // 从屏幕位移出发，松手时第一帧与最后一次拖拽位置一致
+        mSettleFrom = currentTranslation();
+        mSettleTo = target;
+        mSettleEndAction = runnable;
+        mSettleAnimator.setDuration(time);
+        if (mMeasureLimit >= 0) {
+            // 回弹覆盖的最大可见高度
+            int limit = Math.max(visibleHeight(mSettleFrom), visibleHeight(target));
+            if (limit > mMeasureLimit) {
+                updateMeasureLimit(limit);
+            }
+        }
+        if (time > 0) {
+            captureSnapshot();
+        }
+        publishSettleViewport(mSettleFrom, target);
+        notifySettleTarget((int) mSettleFrom, target, time);
+        currentAnimator = mSettleAnimator;
+        currentAnimator.start();
+        if (mJankMonitor != null) {
+            mJankMonitor.setPhase(SheetPhase.SETTLE);
+        }
+
+    }
+
+    private void initSettleAnimator() {
+        mSettleAnimator.setInterpolator(SETTLE_INTERPOLATOR);
+        mSettleAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                // 直接取插值后的 fraction，避免 getAnimatedValue 装箱
+                float fraction = animation.getAnimatedFraction();
+                mGestureCore.setAnimTranslation(mSettleFrom + (mSettleTo - mSettleFrom) * fraction);
+            }
+        });
+        mSettleAnimator.addListener(new CancelDetectionAnimationListener() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                canceled = false;
+            }
+
             @Override
             public void onAnimationEnd(@NonNull Animator animation) {
                 if (!canceled) {
                     currentAnimator = null;
+                    snapTranslation();
+                    notifySheetSettled(Math.round(mSettleTo));
+                    releaseSnapshot();
+                    isSnapshotAttempted = false;
+                    updateRestingMeasureLimit();
+                    publishRestingViewport();
                 }
+                if (mJankMonitor != null) {
+                    mJankMonitor.setPhase(getSheetPhase());
+                }
+                SheetTrace.endAsyncSection("NTSL#settle", mSettleCookie);
+                notifySettleEnd(canceled);
+                Runnable runnable = mSettleEndAction;
+                mSettleEndAction = null;
                 if (runnable != null) {
                     runnable.run();
                 }
             }
         });
-        currentAnimator.start();
+    }
+
+    private void inflateLazyContent() {
+        if (mLazyPlaceholder == null || isContentInflating) {
+            return;
+        }
+        Looper.myQueue().removeIdleHandler(mLazyContentIdleHandler);
+        isLazyContentPending = false;
+        isContentInflating = true;
+        if (mContentInflater == null) {
+            final AsyncLayoutInflater asyncInflater = new AsyncLayoutInflater(getContext());
+            mContentInflater = new ContentInflater() {
+                @Override
+                public void inflate(int layoutRes, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener listener) {
+                    asyncInflater.inflate(layoutRes, parent, listener);
+                }
+            };
+        }
+        SheetTrace.beginSection("NTSL#inflateLazyContent");
+        try {
+            mContentInflater.inflate(mLazyContentRes, this, mLazyContentInflated);
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private void attachLazyContent(View content) {
+        if (mLazyPlaceholder == null) {
+            return;
+        }
+        float translationY = mLazyPlaceholder.getTranslationY();
+        removeView(mLazyPlaceholder);
+        mLazyPlaceholder = null;
+        isChildHiddenByLayout = false;
+        content.setTranslationY(translationY);
+        addView(content, content.getLayoutParams());
+        updateChildVisibility(translationY);
+        if (isSheetHidden) {
+            pauseWebViews();
+        }
+        if (mContentInflatedListener != null) {
+            mContentInflatedListener.onContentInflated(content);
+        }
+        if (hasPendingRecover) {
+            Runnable runnable = mPendingEndAction;
+            mPendingEndAction = null;
+            recover(mPendingTarget, runnable, mPendingTime);
+        }
+    }
+
+    /**
+     * 每次空闲只做一步，避免单次占用主线程过久
+     */
+    private class PrewarmIdleHandler implements MessageQueue.IdleHandler {
+
+        /**
+         * 回弹动画求值与插值器
+         */
+        private static final int STEP_ANIMATOR = 0;
+        /**
+         * 开启索引时重建可滚动子孙索引，首次拖拽的命中检测不再承担重建
+         */
+        private static final int STEP_SCROLLABLE_INDEX = 1;
+        /**
+         * 仅 content：隐藏中的 child 离屏 measure / layout
+         */
+        private static final int STEP_MEASURE = 2;
+        /**
+         * 仅 content：隐藏中的 child 离屏绘制一次
+         */
+        private static final int STEP_RECORD = 3;
+
+        private final int mLastStep;
+
+        private int mStep = STEP_ANIMATOR;
+
+        PrewarmIdleHandler(boolean content) {
+            mLastStep = content ? STEP_RECORD : STEP_SCROLLABLE_INDEX;
+        }
+
+        boolean isDone() {
+            return mStep > mLastStep;
+        }
+
+        @Override
+        public boolean queueIdle() {
+            if (isAnimating() || mGestureCore.isFingerHolderTouch()) {
+                // 交互中的空闲留给交互本身，等下一次空闲
+                return true;
+            }
+            SheetTrace.beginSection("NTSL#prewarm");
+            try {
+                switch (mStep++) {
+                    case STEP_ANIMATOR:
+                        prewarmAnimator();
+                        break;
+                    case STEP_SCROLLABLE_INDEX:
+                        if (mScrollableIndex != null) {
+                            ensureScrollableIndex();
+                        }
+                        break;
+                    case STEP_MEASURE:
+                        prewarmMeasure();
+                        break;
+                    case STEP_RECORD:
+                        prewarmRecord();
+                        break;
+                    default:
+                        break;
+                }
+            } finally {
+                SheetTrace.endSection();
+            }
+            return !isDone();
+        }
+    }
+
+    /**
+     * 用一个临时动画走一遍 PropertyValuesHolder / Keyframe 求值与插值器，不触碰真正的回弹动画
+     */
+    private void prewarmAnimator() {
+        ValueAnimator animator = ValueAnimator.ofFloat(mSettleFrom, mSettleTo);
+        animator.setInterpolator(SETTLE_INTERPOLATOR);
+        animator.setDuration(mSettleAnimator.getDuration());
+        animator.setCurrentFraction(0.5f);
+        animator.getAnimatedValue();
+    }
+
+    private boolean isChildHidden() {
+        return mChildView != null && getHeight() > 0 && Math.abs(mChildView.getTranslationY()) >= getHeight();
+    }
 
+    /**
+     * 隐藏中的 child 在原位置完成 measure / layout，展开首帧的 traversal 不再重新测量
+     */
+    private void prewarmMeasure() {
+        if (!isChildHidden() || !mChildView.isLayoutRequested()) {
+            return;
+        }
+        FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) mChildView.getLayoutParams();
+        measureChildWithMargins(mChildView,
+                MeasureSpec.makeMeasureSpec(getMeasuredWidth(), MeasureSpec.EXACTLY), 0,
+                MeasureSpec.makeMeasureSpec(getMeasuredHeight(), MeasureSpec.EXACTLY), 0);
+        applyMeasureLimit();
+        int left = getPaddingLeft() + lp.leftMargin;
+        int top = getPaddingTop() + lp.topMargin;
+        mChildView.layout(left, top, left + mChildView.getMeasuredWidth(), top + mChildView.getMeasuredHeight());
+    }
+
+    /**
+     * 隐藏中的 child 被裁剪不会录制，离屏走一遍 draw，预先完成文字排版、drawable 解码等首次绘制开销
+     */
+    private void prewarmRecord() {
+        if (!isChildHidden() || mChildView.getWidth() == 0 || mChildView.getHeight() == 0) {
+            return;
+        }
+        Picture picture = new Picture();
+        Canvas canvas = picture.beginRecording(mChildView.getWidth(), mChildView.getHeight());
+        mChildView.draw(canvas);
+        picture.endRecording();
     }
 
     private void interceptHorizontalTouch(MotionEvent event, float deltaX, float deltaY) {
@@ -674,29 +1752,203 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     }
 
     private void notifyNestScrollChildChangeCallback(float detlaY) {
-        for (INestChildScrollChange change : mNestChildScrollChangeCallbacks) {
-            change.onNestChildScrollChange(detlaY);
+        SheetTrace.beginSection("NTSL#notifyNestScrollChildChangeCallback");
+        try {
+            for (int i = 0, size = mNestChildScrollChangeCallbacks.size(); i < size; i++) {
+                INestChildScrollChange change = mNestChildScrollChangeCallbacks.get(i);
+                change.onNestChildScrollChange(detlaY);
+            }
+        } finally {
+            SheetTrace.endSection();
         }
     }
 
     private void notifyNestScrollChildReleaseCallback(int velocityY) {
-        for (INestChildScrollChange change : mNestChildScrollChangeCallbacks) {
-            change.onNestChildScrollRelease(getChildAt(0).getTranslationY(), velocityY);
+        SheetTrace.beginSection("NTSL#notifyNestScrollChildReleaseCallback");
+        try {
+            for (int i = 0, size = mNestChildScrollChangeCallbacks.size(); i < size; i++) {
+                INestChildScrollChange change = mNestChildScrollChangeCallbacks.get(i);
+                change.onNestChildScrollRelease(getChildAt(0).getTranslationY(), velocityY);
+            }
+        } finally {
+            SheetTrace.endSection();
         }
     }
 
     private void notifyNestScrollChildHorizontalCallback(MotionEvent event, float deltaX, float deltaY) {
-        for (INestChildScrollChange change : mNestChildScrollChangeCallbacks) {
-            change.onNestChildHorizationScroll(event, deltaX, deltaY);
+        SheetTrace.beginSection("NTSL#notifyNestScrollChildHorizontalCallback");
+        try {
+            for (int i = 0, size = mNestChildScrollChangeCallbacks.size(); i < size; i++) {
+                INestChildScrollChange change = mNestChildScrollChangeCallbacks.get(i);
+                change.onNestChildHorizationScroll(event, deltaX, deltaY);
+            }
+        } finally {
+            SheetTrace.endSection();
         }
     }
 
     private void notifyOnFingerUp(float velocityY) {
-        for (INestChildScrollChange change : mNestChildScrollChangeCallbacks) {
-            change.onFingerUp(velocityY);
+        SheetTrace.beginSection("NTSL#notifyOnFingerUp");
+        try {
+            for (int i = 0, size = mNestChildScrollChangeCallbacks.size(); i < size; i++) {
+                INestChildScrollChange change = mNestChildScrollChangeCallbacks.get(i);
+                change.onFingerUp(velocityY);
+            }
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private void notifySheetVisible() {
+        for (int i = 0, size = mSheetVisibilityCallbacks.size(); i < size; i++) {
+            mSheetVisibilityCallbacks.get(i).onSheetVisible();
+        }
+    }
+
+    private void notifySheetHidden() {
+        for (int i = 0, size = mSheetVisibilityCallbacks.size(); i < size; i++) {
+            mSheetVisibilityCallbacks.get(i).onSheetHidden();
+        }
+    }
+
+    private void notifySheetSettled(int offset) {
+        for (int i = 0, size = mSheetVisibilityCallbacks.size(); i < size; i++) {
+            mSheetVisibilityCallbacks.get(i).onSheetSettled(offset);
+        }
+    }
+
+    public void registerSheetVisibilityCallback(ISheetVisibilityChange callback) {
+        if (!mSheetVisibilityCallbacks.contains(callback)) {
+            mSheetVisibilityCallbacks.add(callback);
+        }
+    }
+
+    public void removeSheetVisibilityCallback(ISheetVisibilityChange callback) {
+        mSheetVisibilityCallbacks.remove(callback);
+    }
+
+    /**
+     * sheet 当前是否完全隐藏
+     * @return
+     */
+    public boolean isSheetHidden() {
+        return isSheetHidden;
+    }
+
+    private void pauseWebViews() {
+        if (mWebViewPauseMode == WebViewPauseMode.NONE || mChildView == null) {
+            return;
+        }
+        collectWebViews(mChildView);
+        for (int i = 0, size = mPausedWebViews.size(); i < size; i++) {
+            mPausedWebViews.get(i).onPause();
+        }
+        if (mWebViewPauseMode == WebViewPauseMode.RENDER_AND_TIMERS && !mPausedWebViews.isEmpty()) {
+            mPausedWebViews.get(0).pauseTimers();
+        }
+    }
+
+    private void resumeWebViews() {
+        if (mPausedWebViews.isEmpty()) {
+            return;
+        }
+        for (int i = 0, size = mPausedWebViews.size(); i < size; i++) {
+            mPausedWebViews.get(i).onResume();
+        }
+        if (mWebViewPauseMode == WebViewPauseMode.RENDER_AND_TIMERS) {
+            mPausedWebViews.get(0).resumeTimers();
+        }
+        mPausedWebViews.clear();
+    }
+
+    private void collectWebViews(View view) {
+        if (view instanceof WebView) {
+            mPausedWebViews.add((WebView) view);
+            return;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup vg = (ViewGroup) view;
+            for (int i = 0; i < vg.getChildCount(); i++) {
+                collectWebViews(vg.getChildAt(i));
+            }
+        }
+    }
+
+    private void notifySettleTarget(int from, int target, long duration) {
+        for (int i = 0, size = mSheetPrefetches.size(); i < size; i++) {
+            mSheetPrefetches.get(i).onSettleTarget(this, from, target, duration);
+        }
+    }
+
+    private void notifySettleEnd(boolean canceled) {
+        for (int i = 0, size = mSheetPrefetches.size(); i < size; i++) {
+            mSheetPrefetches.get(i).onSettleEnd(this, canceled);
+        }
+    }
+
+    public void addSheetPrefetch(ISheetPrefetch prefetch) {
+        if (!mSheetPrefetches.contains(prefetch)) {
+            mSheetPrefetches.add(prefetch);
+        }
+    }
+
+    public void removeSheetPrefetch(ISheetPrefetch prefetch) {
+        mSheetPrefetches.remove(prefetch);
+    }
+
+    /**
+     * 回弹中返回回弹目标位移，否则返回当前位移
+     * @return
+     */
+    public int getSettleTarget() {
+        if (isAnimating()) {
+            return (int) mSettleTo;
+        }
+        return Math.round(mGestureCore.getDisplayTranslation());
+    }
+
+    private float currentTranslation() {
+        return mChildView != null ? mChildView.getTranslationY() : mGestureCore.getDisplayTranslation();
+    }
+
+    private void applySheetEffects(float transY) {
+        int height = mGestureCore.getHeight();
+        if (mSheetEffects.isEmpty() || height == 0) {
+            return;
+        }
+        float fraction = 1 - transY / height;
+        for (int i = 0, size = mSheetEffects.size(); i < size; i++) {
+            mSheetEffects.get(i).apply(fraction);
+        }
+    }
+
+    /**
+     * 将 target 的属性绑定到 sheet fraction（0 完全隐藏，1 完全展开），关键帧之间线性插值，绑定时即按当前位置生效
+     * @param target
+     * @param property
+     * @param fractions 升序关键帧位置，取值 [0, 1]
+     * @param values 关键帧对应属性值
+     */
+    public void bindSheetEffect(View target, @EffectProperty int property, float[] fractions, float[] values) {
+        unbindSheetEffect(target, property);
+        mSheetEffects.add(new SheetEffect(target, property, fractions, values));
+        // 立即同步到当前位置，不等下一次位移
+        applySheetEffects(currentTranslation());
+    }
+
+    public void unbindSheetEffect(View target, @EffectProperty int property) {
+        for (int i = mSheetEffects.size() - 1; i >= 0; i--) {
+            SheetEffect effect = mSheetEffects.get(i);
+            if (effect.target == target && effect.property == property) {
+                mSheetEffects.remove(i);
+            }
         }
     }
 
+    public void clearSheetEffects() {
+        mSheetEffects.clear();
+    }
+
     @Override
     protected boolean overScrollBy(int deltaX, int deltaY, int scrollX, int scrollY, int scrollRangeX, int scrollRangeY, int maxOverScrollX, int maxOverScrollY, boolean isTouchEvent) {
         return super.overScrollBy(deltaX, deltaY, scrollX, scrollY, scrollRangeX, scrollRangeY, maxOverScrollX, maxOverScrollY, isTouchEvent);
@@ -749,7 +2001,7 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
     }
 
     public boolean isFingerHolderTouch() {
-        return isFingerHolderTouch;
+        return mGestureCore.isFingerHolderTouch();
     }
 
     public float getMinFlingVelocity() {
@@ -795,7 +2047,7 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
      * @param direction
      */
     public void setSheetDirection(@SheetDirection int direction) {
-        mSheetDirection = direction;
+        mGestureCore.setSheetDirection(direction);
     }
 
     /**
@@ -803,7 +2055,7 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
      * @param mDampingDown
      */
     public void setDampingDown(float mDampingDown) {
-        this.mDampingDown = mDampingDown;
+        mGestureCore.setDampingDown(mDampingDown);
     }
 
     /**
@@ -811,7 +2063,90 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
      * @param mDampingUp
      */
     public void setDampingUp(float mDampingUp) {
-        this.mDampingUp = mDampingUp;
+        mGestureCore.setDampingUp(mDampingUp);
+    }
+
+    /**
+     * 手指向上越过最上 anchor 后的阻尼曲线，优先于 setDampingUp，只作用于拖拽
+     * @param curve 为 null 时恢复线性阻尼
+     */
+    public void setResistanceUp(@Nullable ResistanceCurve curve) {
+        mGestureCore.setResistanceUp(curve);
+    }
+
+    /**
+     * 手指向下越过最下 anchor 后的阻尼曲线，优先于 setDampingDown，只作用于拖拽
+     * @param curve 为 null 时恢复线性阻尼
+     */
+    public void setResistanceDown(@Nullable ResistanceCurve curve) {
+        mGestureCore.setResistanceDown(curve);
+    }
+
+    /**
+     * 阻尼曲线起算的 translationY，默认只有 0
+     * @param anchors
+     */
+    public void setResistanceAnchors(int... anchors) {
+        mGestureCore.setResistanceAnchors(anchors);
+    }
+
+    /**
+     * 运动中是否允许亚像素位移（拖拽、回弹更顺滑），手势结束与回弹结束时对齐像素；
+     * 关闭时每次位移都先对齐像素，像素未变化则不写入、不回调
+     * @param enabled
+     */
+    public void setSubPixelTranslationEnabled(boolean enabled) {
+        mSubPixelTranslation = enabled;
+        if (!enabled && mChildView != null) {
+            applyTranslation(mChildView.getTranslationY(), true);
+        }
+    }
+
+    /**
+     * 由 layout 在 sheet 未覆盖区域绘制遮罩，alpha 按 sheet fraction 从 0 到 color 自带 alpha，
+     * 点击遮罩收起 sheet（{@link #hiden()}）
+     * @param color 0 为关闭
+     */
+    public void setScrimColor(@ColorInt int color) {
+        mScrimColor = color;
+        invalidate();
+    }
+
+    /**
+     * 方向受限一侧（见 {@link #setSheetDirection}）被继续拖动，或开启 {@link #setOverscrollReplacesTranslation}
+     * 后 child 滚到边界仍继续拖动时，由 layout 在绘制阶段给出拉伸或辉光反馈，
+     * child 位移保持 0，不触发回调，也无需在回调里 recover
+     * @param effect
+     */
+    public void setOverscrollEffect(@OverscrollEffect int effect) {
+        mOverscroll = effect == OverscrollEffect.NONE ? null : new SheetOverscroll(getContext(), effect);
+        invalidate();
+    }
+
+    /**
+     * 开启后，child 静止在 0 位时滚到边界的拖拽不再带阻尼移动 child，改为 {@link #setOverscrollEffect} 的绘制反馈，
+     * 松手无需 recover(0)；不在 0 位的 sheet 拖拽不受影响。未设置 effect 时这类拖拽没有任何反馈
+     * @param enabled
+     */
+    public void setOverscrollReplacesTranslation(boolean enabled) {
+        mGestureCore.setOverscrollReplacesTranslation(enabled);
+    }
+
+    /**
+     * 锁定轴向前允许的移动距离，默认系统 touch slop
+     * @param touchSlop 像素
+     */
+    public void setTouchSlop(float touchSlop) {
+        mTouchSlop = touchSlop;
+        mGestureCore.setTouchSlop(touchSlop);
+    }
+
+    /**
+     * 与竖直方向夹角小于该角度锁定为竖向拖拽，否则整个手势交给 child，默认 45
+     * @param degrees 取值 (0, 90)
+     */
+    public void setAxisLockAngle(float degrees) {
+        mGestureCore.setAxisLockAngle(degrees);
     }
 
     /**
@@ -822,6 +2157,250 @@ public class NestedTouchScrollingLayout extends FrameLayout implements NestedScr
         isParentDispatchTouchEvent = b;
     }
 
+    /**
+     * 录制到达当前 layout 的 MotionEvent 流，传 null 取消
+     * @param recorder
+     */
+    public void setMotionEventRecorder(@Nullable MotionEventRecorder recorder) {
+        mEventRecorder = recorder;
+    }
+
+    /**
+     * 是否开启 systrace / perfetto 埋点，对所有实例生效
+     * @param enabled
+     */
+    public static void setTraceEnabled(boolean enabled) {
+        SheetTrace.setEnabled(enabled);
+    }
+
+    /**
+     * 是否开启手指 -> 帧延迟统计
+     * @param enabled
+     */
+    public void setTouchLatencyProbeEnabled(boolean enabled) {
+        if (enabled == (mLatencyProbe != null)) {
+            return;
+        }
+        if (enabled) {
+            mLatencyProbe = new TouchLatencyProbe();
+            mLatencyProbe.setOnGestureLatencyListener(mGestureLatencyListener);
+            if (isAttachedToWindow()) {
+                mLatencyProbe.attach(getHostWindow());
+            }
+        } else {
+            mLatencyProbe.detach();
+            mLatencyProbe = null;
+        }
+    }
+
+    /**
+     * 最近一次完整手势的延迟分位数，未开启或尚无数据时返回 null
+     * @return
+     */
+    @Nullable
+    public TouchLatencyProbe.GestureLatency getLastGestureLatency() {
+        return mLatencyProbe == null ? null : mLatencyProbe.getLastGestureLatency();
+    }
+
+    public void setOnGestureLatencyListener(TouchLatencyProbe.OnGestureLatencyListener listener) {
+        mGestureLatencyListener = listener;
+        if (mLatencyProbe != null) {
+            mLatencyProbe.setOnGestureLatencyListener(listener);
+        }
+    }
+
+    /**
+     * 是否开启分阶段掉帧统计
+     * @param enabled
+     */
+    public void setJankMonitorEnabled(boolean enabled) {
+        if (enabled == (mJankMonitor != null)) {
+            return;
+        }
+        if (enabled) {
+            mJankMonitor = new SheetJankMonitor();
+            if (isAttachedToWindow()) {
+                mJankMonitor.attach(getHostWindow(), getViewTreeObserver(), getDisplay() == null ? 0 : getDisplay().getRefreshRate());
+            }
+        } else {
+            mJankMonitor.detach();
+            mJankMonitor = null;
+        }
+    }
+
+    /**
+     * 分阶段帧统计快照，未开启时返回 null
+     * @return
+     */
+    @Nullable
+    public SheetJankStats getJankStats() {
+        return mJankMonitor == null ? null : mJankMonitor.snapshot();
+    }
+
+    public void resetJankStats() {
+        if (mJankMonitor != null) {
+            mJankMonitor.reset();
+        }
+    }
+
+    /**
+     * sheet 静止在 peek 时只按可见高度 measure child，RecyclerView 等只布局、保留可见的行；完全隐藏时保留上一次的高度；
+     * 拖拽中保持不变，向上拖出已 measure 部分或开始向上回弹时才恢复高度。仅对顶部对齐的 child 生效
+     * @param enabled
+     */
+    public void setVisibleHeightMeasureEnabled(boolean enabled) {
+        if (enabled == isVisibleHeightMeasure) {
+            return;
+        }
+        isVisibleHeightMeasure = enabled;
+        if (enabled) {
+            if (!isAnimating() && !mGestureCore.isFingerHolderTouch()) {
+                updateRestingMeasureLimit();
+            }
+        } else {
+            updateMeasureLimit(-1);
+        }
+    }
+
+    /**
+     * 拖拽与回弹期间用 child 的位图替身代替实时绘制，适合内容持续 invalidate 的重页面（WebView、嵌套列表）；
+     * child 重新接管 touch 或 sheet 静止后换回实时内容。替身跟随 child 的 alpha / scale / translation，
+     * 但无法还原阴影，child 的 z 大于 0 时改回实时绘制。SurfaceView / TextureView 内容无法录制
+     * @param enabled
+     */
+    public void setDragSnapshotEnabled(boolean enabled) {
+        if (enabled == (mSnapshot != null)) {
+            return;
+        }
+        if (enabled) {
+            mSnapshot = new SheetSnapshot(DEFAULT_SNAPSHOT_MAX_BYTES);
+        } else {
+            releaseSnapshot();
+            mSnapshot = null;
+        }
+    }
+
+    /**
+     * 位图替身的内存上限，child 尺寸超过时回退到实时绘制
+     * @param maxBytes
+     */
+    public void setDragSnapshotMaxBytes(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0!!!");
+        }
+        if (mSnapshot == null) {
+            throw new IllegalStateException("drag snapshot must be enabled first!!!");
+        }
+        mSnapshot.setMaxBytes(maxBytes);
+    }
+
+    /**
+     * sheet 完全隐藏时暂停其中的 WebView，再次可见时恢复，默认不处理。
+     * <p>
+     * 注意：{@link WebViewPauseMode#RENDER_AND_TIMERS} 调用的 WebView#pauseTimers 是进程级的，
+     * 会同时冻结应用内所有 WebView（包括其他页面、其他 sheet 中的）的 JS 定时器与布局，且不做跨 layout 的引用计数，
+     * 任一 layout 恢复时也会恢复全部。页面上同时存在多个 WebView 时只能使用 {@link WebViewPauseMode#RENDER}
+     * @param mode
+     */
+    public void setWebViewPauseMode(@WebViewPauseMode int mode) {
+        if (mode != mWebViewPauseMode) {
+            resumeWebViews();
+            mWebViewPauseMode = mode;
+            if (isSheetHidden) {
+                pauseWebViews();
+            }
+        }
+    }
+
+    /**
+     * 延迟加载内容：layout 先放一个空的占位 child，首帧后主线程空闲时或首次展开时在后台线程 inflate，
+     * 挂上后再开始展开回弹；需在 layout 没有 child 时调用
+     * @param layoutRes
+     * @param listener 内容挂上后回调，在此绑定数据
+     */
+    public void setLazyContent(@LayoutRes int layoutRes, @Nullable OnContentInflatedListener listener) {
+        if (mLazyPlaceholder == null && getChildCount() > 0) {
+            throw new IllegalStateException("lazy content requires an empty layout!!!");
+        }
+        mLazyContentRes = layoutRes;
+        mContentInflatedListener = listener;
+        if (mLazyPlaceholder == null) {
+            mLazyPlaceholder = new View(getContext());
+            addView(mLazyPlaceholder, new FrameLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        }
+        if (!isContentInflating) {
+            isLazyContentPending = true;
+            invalidate();
+        }
+    }
+
+    void setContentInflater(ContentInflater inflater) {
+        mContentInflater = inflater;
+    }
+
+    MessageQueue.IdleHandler getPrewarmHandler() {
+        return mPrewarm;
+    }
+
+    boolean isScrollableIndexReady() {
+        return mScrollableIndex != null && !mScrollableIndex.isDirty() && mScrollableIndex.getRoot() == getChildAt(0);
+    }
+
+    /**
+     * 首帧绘制后在主线程空闲时预热回弹动画、插值器与命中索引，首次展开不再承担类加载与初始化开销
+     * @param content 是否同时对隐藏中的 child 做离屏 measure / layout 与一次绘制
+     */
+    public void prewarm(boolean content) {
+        if (mPrewarm != null && !mPrewarm.isDone() && !isPrewarmPending) {
+            Looper.myQueue().removeIdleHandler(mPrewarm);
+        }
+        mPrewarm = new PrewarmIdleHandler(content);
+        isPrewarmPending = true;
+        invalidate();
+    }
+
+    /**
+     * 是否用可滚动子孙的扁平索引代替逐层递归做命中检测，适合子 View 很多的页面；
+     * 仅识别 ScrollView、NestedScrollView、AbsListView、RecyclerView、WebView、HorizontalScrollView、ViewPager、
+     * 带 AppBarLayout 的 CoordinatorLayout 以及 isScrollContainer 的 View。
+     * 索引在下一次 layout 中建立，之后按子树增删更新，为此会占用 child 子树内各 ViewGroup 的 OnHierarchyChangeListener
+     * @param enabled
+     */
+    public void setScrollableIndexEnabled(boolean enabled) {
+        if (enabled == (mScrollableIndex != null)) {
+            return;
+        }
+        if (enabled) {
+            mScrollableIndex = new ScrollableIndex();
+            if (isAttachedToWindow()) {
+                attachScrollableIndex();
+            } else {
+                requestLayout();
+            }
+        } else {
+            if (isAttachedToWindow()) {
+                detachScrollableIndex();
+            } else {
+                mScrollableIndex.release();
+            }
+            mScrollableIndex = null;
+        }
+    }
+
+    private void attachScrollableIndex() {
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnPreDrawListener(mIndexPreDrawListener);
+        mScrollableIndex.invalidate();
+        // 在下一次 layout 中收集，而不是在之后的触摸里
+        requestLayout();
+    }
+
+    private void detachScrollableIndex() {
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.removeOnPreDrawListener(mIndexPreDrawListener);
+        mScrollableIndex.release();
+    }
+
     /**
      * 动画是否正在执行
      * @return
@@ -0,0 +1,333 @@
+package jarvis.com.library;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+import android.view.ViewParent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function sheet 静止后（此时已按 measure 上限完成 layout），算出下一次展开到 openTarget 时 RecyclerView 缺少的行，
+ * 在之后几帧 traversal 结束后的空闲时间里逐行创建并绑定，每帧以下一帧 vsync 为 deadline；展开首帧的 layout
+ * 经 ViewCacheExtension 直接取用这些行，数据变化则全部作废。需在 RecyclerView 首次布局前创建
+ */
+public final class RecyclerViewPrefetcher implements NestedTouchScrollingLayout.ISheetPrefetch {
+
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+
+    private final RecyclerView mRecyclerView;
+
+    /**
+     * 取自 RecyclerView 首次布局，Recycler 与 RecyclerView 生命周期一致
+     */
+    private RecyclerView.Recycler mRecycler;
+
+    /**
+     * key 为 adapter position
+     */
+    private final SparseArray<View> mPrefetched = new SparseArray<>();
+
+    private NestedTouchScrollingLayout mLayout;
+
+    /**
+     * 下一次展开的目标位移
+     */
+    private int mOpenTarget;
+
+    private int mNextPosition;
+    private int mEndPosition;
+
+    /**
+     * 静止后需要在下一帧 layout 完成后重新计算缺少的行
+     */
+    private boolean isPlanPending;
+
+    private long mDeadlineNanos;
+
+    /**
+     * 单行创建 + 绑定耗时的滑动平均，用于判断剩余时间是否够再做一行
+     */
+    private long mAverageBindNanos;
+
+    private int mEstimatedItemHeight;
+
+    private boolean isScheduled;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            isScheduled = false;
+            mDeadlineNanos = frameTimeNanos + frameIntervalNanos();
+            // 排在本帧 traversal 之后执行，只占用本帧剩余的空闲时间
+            mRecyclerView.post(mPrefetchRunnable);
+        }
+    };
+
+    private final Runnable mPrefetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            runFrame(mDeadlineNanos);
+            schedule();
+        }
+    };
+
+    private final RecyclerView.AdapterDataObserver mDataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            clear();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            clear();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            clear();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            clear();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            clear();
+        }
+    };
+
+    private RecyclerView.Adapter mObservedAdapter;
+
+    /**
+     * 会占用 recyclerView 的 ViewCacheExtension
+     * @param recyclerView
+     */
+    public RecyclerViewPrefetcher(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        mEstimatedItemHeight = (int) (48 * recyclerView.getResources().getDisplayMetrics().density);
+        mRecyclerView.setViewCacheExtension(new RecyclerView.ViewCacheExtension() {
+            @Nullable
+            @Override
+            public View getViewForPositionAndType(@NonNull RecyclerView.Recycler recycler, int position, int type) {
+                mRecycler = recycler;
+                View view = mPrefetched.get(position);
+                if (view == null) {
+                    return null;
+                }
+                mPrefetched.remove(position);
+                RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(view);
+                if (holder.getItemViewType() != type) {
+                    recycler.recycleView(view);
+                    return null;
+                }
+                return view;
+            }
+        });
+    }
+
+    /**
+     * 尚未布局出任何行时使用的估算行高
+     * @param height px
+     */
+    public void setEstimatedItemHeight(int height) {
+        if (height <= 0) {
+            throw new IllegalArgumentException("height must be > 0!!!");
+        }
+        mEstimatedItemHeight = height;
+    }
+
+    /**
+     * 下一次展开的目标位移，默认 0 即完全展开
+     * @param target
+     */
+    public void setOpenTarget(int target) {
+        mOpenTarget = target;
+    }
+
+    @Override
+    public void onSettleTarget(NestedTouchScrollingLayout layout, int from, int target, long duration) {
+        mLayout = layout;
+        // 回弹首帧就会 layout，此后预取已来不及；已预取的行留给这次 layout 取用
+        cancel();
+        isPlanPending = false;
+    }
+
+    @Override
+    public void onSettleEnd(NestedTouchScrollingLayout layout, boolean canceled) {
+        mLayout = layout;
+        if (canceled) {
+            return;
+        }
+        // 静止后的下一帧 traversal 会应用新的 measure 上限，等它完成再计算
+        isPlanPending = true;
+        schedule();
+    }
+
+    /**
+     * 一帧的预取工作
+     * @param deadlineNanos 超过该时间不再开始新的一行
+     */
+    void runFrame(long deadlineNanos) {
+        if (isPlanPending) {
+            isPlanPending = false;
+            plan();
+        }
+        prefetchUntil(deadlineNanos);
+    }
+
+    int prefetchedCount() {
+        return mPrefetched.size();
+    }
+
+    private void plan() {
+        mEndPosition = mNextPosition;
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        RecyclerView.Adapter adapter = mRecyclerView.getAdapter();
+        if (mLayout == null || mRecycler == null || layoutManager == null || adapter == null
+                || !layoutManager.canScrollVertically() || mRecyclerView.hasPendingAdapterUpdates()) {
+            return;
+        }
+        if (layoutManager instanceof LinearLayoutManager && ((LinearLayoutManager) layoutManager).getReverseLayout()) {
+            return;
+        }
+        if (Math.abs(mLayout.getSettleTarget()) <= Math.abs(mOpenTarget)) {
+            // 已经展开
+            return;
+        }
+        observe(adapter);
+
+        // 展开后 RecyclerView 坐标系下的可见下沿
+        int openBottom = mLayout.getHeight() - Math.abs(mOpenTarget) - topInLayout();
+        int laidOutBottom = 0;
+        int firstPosition = 0;
+        int itemHeight = mEstimatedItemHeight;
+        int childCount = layoutManager.getChildCount();
+        if (childCount > 0) {
+            View last = layoutManager.getChildAt(childCount - 1);
+            laidOutBottom = layoutManager.getDecoratedBottom(last);
+            firstPosition = layoutManager.getPosition(last) + 1;
+            int laidOutTop = layoutManager.getDecoratedTop(layoutManager.getChildAt(0));
+            itemHeight = Math.max(1, (laidOutBottom - laidOutTop) / childCount);
+        }
+        int extra = openBottom - laidOutBottom;
+        if (extra <= 0) {
+            return;
+        }
+        int count = (extra + itemHeight - 1) / itemHeight;
+        if (layoutManager instanceof GridLayoutManager) {
+            count *= ((GridLayoutManager) layoutManager).getSpanCount();
+        }
+        mNextPosition = firstPosition;
+        mEndPosition = Math.min(adapter.getItemCount(), firstPosition + count);
+    }
+
+    /**
+     * RecyclerView 顶部相对 layout 的位置，不含 sheet 位移
+     */
+    private int topInLayout() {
+        int top = 0;
+        View view = mRecyclerView;
+        while (view != mLayout) {
+            top += view.getTop();
+            ViewParent parent = view.getParent();
+            if (!(parent instanceof View)) {
+                return top;
+            }
+            view = (View) parent;
+            if (view != mLayout) {
+                top -= view.getScrollY();
+            }
+        }
+        return top;
+    }
+
+    private void schedule() {
+        if (!isScheduled && (isPlanPending || mNextPosition < mEndPosition)) {
+            isScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void cancel() {
+        mEndPosition = mNextPosition;
+        if (isScheduled) {
+            isScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        }
+        mRecyclerView.removeCallbacks(mPrefetchRunnable);
+    }
+
+    private void prefetchUntil(long deadlineNanos) {
+        RecyclerView.Adapter adapter = mRecyclerView.getAdapter();
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        if (mNextPosition >= mEndPosition) {
+            return;
+        }
+        if (adapter == null || layoutManager == null || adapter != mObservedAdapter
+                || mRecyclerView.hasPendingAdapterUpdates()) {
+            cancel();
+            return;
+        }
+        SheetTrace.beginSection("NTSL#prefetchRows");
+        try {
+            while (mNextPosition < mEndPosition && mNextPosition < adapter.getItemCount()) {
+                long start = System.nanoTime();
+                if (start + mAverageBindNanos > deadlineNanos) {
+                    break;
+                }
+                int position = mNextPosition++;
+                if (mPrefetched.get(position) != null || layoutManager.findViewByPosition(position) != null) {
+                    // 已预取或已在屏幕上
+                    continue;
+                }
+                mPrefetched.put(position, mRecycler.getViewForPosition(position));
+                long cost = System.nanoTime() - start;
+                mAverageBindNanos = mAverageBindNanos == 0 ? cost : (mAverageBindNanos * 3 + cost) / 4;
+            }
+        } finally {
+            SheetTrace.endSection();
+        }
+    }
+
+    private void observe(RecyclerView.Adapter adapter) {
+        if (mObservedAdapter == adapter) {
+            return;
+        }
+        clear();
+        if (mObservedAdapter != null) {
+            mObservedAdapter.unregisterAdapterDataObserver(mDataObserver);
+        }
+        mObservedAdapter = adapter;
+        adapter.registerAdapterDataObserver(mDataObserver);
+    }
+
+    /**
+     * 作废全部预取行
+     */
+    public void clear() {
+        cancel();
+        for (int i = 0, size = mPrefetched.size(); i < size; i++) {
+            mRecycler.recycleView(mPrefetched.valueAt(i));
+        }
+        mPrefetched.clear();
+    }
+
+    private long frameIntervalNanos() {
+        Display display = mRecyclerView.getDisplay();
+        if (display != null && display.getRefreshRate() >= 30) {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / display.getRefreshRate());
+        }
+        return DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+}
@@ -0,0 +1,359 @@
+package jarvis.com.library;
+
+import android.support.design.widget.AppBarLayout;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.ScrollingView;
+import android.support.v4.view.ViewPager;
+import android.support.v4.widget.NestedScrollView;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.webkit.WebView;
+import android.widget.AbsListView;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 可滚动子孙的扁平索引：记录候选 View、可滚动轴与相对 root 的裁剪后区域，按区域上沿排序，
+ * 点查询越过触点即停止。整棵子树只在 layout 阶段或空闲时完整收集一次，之后经各 ViewGroup 的
+ * OnHierarchyChangeListener 按子树增删；区域在绘制前（滚动、布局、位移之后）刷新，触摸路径上不再遍历 View 树
+ */
+final class ScrollableIndex implements ViewGroup.OnHierarchyChangeListener {
+
+    static final int AXIS_VERTICAL = 0x001;
+    static final int AXIS_HORIZONTAL = 0x002;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private View[] mViews = new View[INITIAL_CAPACITY];
+
+    private int[] mAxes = new int[INITIAL_CAPACITY];
+
+    /**
+     * 相对 root 的裁剪后区域，不可见的候选上沿为 Integer.MAX_VALUE，排在最后
+     */
+    private int[] mLefts = new int[INITIAL_CAPACITY];
+    private int[] mTops = new int[INITIAL_CAPACITY];
+    private int[] mRights = new int[INITIAL_CAPACITY];
+    private int[] mBottoms = new int[INITIAL_CAPACITY];
+
+    private boolean[] mShown = new boolean[INITIAL_CAPACITY];
+
+    private int mSize;
+
+    /**
+     * 已挂上监听的 ViewGroup，关闭索引时逐个摘除
+     */
+    private final List<ViewGroup> mObserved = new ArrayList<>();
+
+    private View mRoot;
+
+    /**
+     * 需要完整收集
+     */
+    private boolean mDirty = true;
+
+    /**
+     * 候选有增删，区域与排序需要刷新
+     */
+    private boolean mBoundsDirty = true;
+
+    void invalidate() {
+        mDirty = true;
+    }
+
+    boolean isDirty() {
+        return mDirty;
+    }
+
+    View getRoot() {
+        return mRoot;
+    }
+
+    /**
+     * 完整收集 root 子树，只应在 layout 阶段或空闲时调用
+     */
+    void rebuild(View root) {
+        release();
+        mRoot = root;
+        if (root != null) {
+            collect(root);
+        }
+        mDirty = false;
+        refreshBounds();
+    }
+
+    /**
+     * 清空候选并摘除全部 OnHierarchyChangeListener
+     */
+    void release() {
+        for (int i = 0, size = mObserved.size(); i < size; i++) {
+            mObserved.get(i).setOnHierarchyChangeListener(null);
+        }
+        mObserved.clear();
+        for (int i = 0; i < mSize; i++) {
+            mViews[i] = null;
+        }
+        mSize = 0;
+        mRoot = null;
+        mDirty = true;
+    }
+
+    boolean isBoundsDirty() {
+        return mBoundsDirty;
+    }
+
+    /**
+     * 按当前 layout 与各层 scroll 重新解析全部候选的区域并按上沿排序，已脱离 root 的候选一并移除；
+     * 只遍历候选的父链，不遍历子树
+     */
+    void refreshBounds() {
+        int size = 0;
+        for (int i = 0; i < mSize; i++) {
+            View view = mViews[i];
+            mViews[i] = null;
+            if (!resolve(view, size)) {
+                continue;
+            }
+            mViews[size] = view;
+            mAxes[size] = mAxes[i];
+            size++;
+        }
+        mSize = size;
+        sortByTop();
+        mBoundsDirty = false;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    View viewAt(int index) {
+        return mViews[index];
+    }
+
+    /**
+     * RecyclerView 的轴随 LayoutManager 变化，查询时再取
+     */
+    boolean hasAxis(int index, int axis) {
+        int axes = mViews[index] instanceof RecyclerView ? axesOf(mViews[index]) : mAxes[index];
+        return (axes & axis) != 0;
+    }
+
+    /**
+     * 候选自身及其到 root 的各层均可见
+     */
+    boolean isShownAt(int index) {
+        return mShown[index];
+    }
+
+    /**
+     * 已排序，触点在上沿之上时其后的候选都不会命中
+     */
+    int topAt(int index) {
+        return mTops[index];
+    }
+
+    boolean contains(int index, float x, float y) {
+        return x > mLefts[index] && x < mRights[index] && y > mTops[index] && y < mBottoms[index];
+    }
+
+    @Override
+    public void onChildViewAdded(View parent, View child) {
+        if (mDirty) {
+            return;
+        }
+        collect(child);
+        mBoundsDirty = true;
+    }
+
+    @Override
+    public void onChildViewRemoved(View parent, View child) {
+        if (mDirty) {
+            return;
+        }
+        int size = 0;
+        for (int i = 0; i < mSize; i++) {
+            if (isInSubtree(mViews[i], child)) {
+                continue;
+            }
+            if (size != i) {
+                move(i, size);
+            }
+            size++;
+        }
+        for (int i = size; i < mSize; i++) {
+            mViews[i] = null;
+        }
+        mSize = size;
+        for (int i = mObserved.size() - 1; i >= 0; i--) {
+            ViewGroup group = mObserved.get(i);
+            if (isInSubtree(group, child)) {
+                group.setOnHierarchyChangeListener(null);
+                mObserved.remove(i);
+            }
+        }
+        mBoundsDirty = true;
+    }
+
+    /**
+     * @return 候选仍挂在 root 下
+     */
+    private boolean resolve(View candidate, int index) {
+        View view = candidate;
+        boolean shown = true;
+        int left = 0;
+        int top = 0;
+        int right = view.getWidth();
+        int bottom = view.getHeight();
+        while (view != mRoot) {
+            ViewParent parent = view.getParent();
+            if (!(parent instanceof View)) {
+                return false;
+            }
+            shown &= view.getVisibility() == View.VISIBLE;
+            View parentView = (View) parent;
+            int dx = view.getLeft() - parentView.getScrollX();
+            int dy = view.getTop() - parentView.getScrollY();
+            left = Math.max(left + dx, 0);
+            top = Math.max(top + dy, 0);
+            right = Math.min(right + dx, parentView.getWidth());
+            bottom = Math.min(bottom + dy, parentView.getHeight());
+            view = parentView;
+        }
+        mShown[index] = shown;
+        mLefts[index] = left;
+        mTops[index] = shown ? top : Integer.MAX_VALUE;
+        mRights[index] = right;
+        mBottoms[index] = bottom;
+        return true;
+    }
+
+    /**
+     * 候选通常很少且大体有序，插入排序
+     */
+    private void sortByTop() {
+        for (int i = 1; i < mSize; i++) {
+            int top = mTops[i];
+            int j = i - 1;
+            if (mTops[j] <= top) {
+                continue;
+            }
+            View view = mViews[i];
+            int axes = mAxes[i];
+            int left = mLefts[i];
+            int right = mRights[i];
+            int bottom = mBottoms[i];
+            boolean shown = mShown[i];
+            while (j >= 0 && mTops[j] > top) {
+                move(j, j + 1);
+                j--;
+            }
+            mViews[j + 1] = view;
+            mAxes[j + 1] = axes;
+            mLefts[j + 1] = left;
+            mTops[j + 1] = top;
+            mRights[j + 1] = right;
+            mBottoms[j + 1] = bottom;
+            mShown[j + 1] = shown;
+        }
+    }
+
+    private void move(int from, int to) {
+        mViews[to] = mViews[from];
+        mAxes[to] = mAxes[from];
+        mLefts[to] = mLefts[from];
+        mTops[to] = mTops[from];
+        mRights[to] = mRights[from];
+        mBottoms[to] = mBottoms[from];
+        mShown[to] = mShown[from];
+    }
+
+    private boolean isInSubtree(View view, View subtreeRoot) {
+        while (view != null && view != mRoot) {
+            if (view == subtreeRoot) {
+                return true;
+            }
+            ViewParent parent = view.getParent();
+            view = parent instanceof View ? (View) parent : null;
+        }
+        return false;
+    }
+
+    private void collect(View view) {
+        if (axesOf(view) != 0 || view instanceof RecyclerView) {
+            add(view, axesOf(view));
+        }
+
+        if (view instanceof WebView || !(view instanceof ViewGroup)) {
+            return;
+        }
+        ViewGroup vg = (ViewGroup) view;
+        vg.setOnHierarchyChangeListener(this);
+        mObserved.add(vg);
+        for (int i = 0; i < vg.getChildCount(); i++) {
+            collect(vg.getChildAt(i));
+        }
+    }
+
+    private static int axesOf(View view) {
+        if (view instanceof WebView || view instanceof ScrollView
+                || view instanceof NestedScrollView || view instanceof AbsListView) {
+            return AXIS_VERTICAL;
+        }
+        if (view instanceof HorizontalScrollView || view instanceof ViewPager) {
+            return AXIS_HORIZONTAL;
+        }
+        if (view instanceof RecyclerView) {
+            RecyclerView.LayoutManager layoutManager = ((RecyclerView) view).getLayoutManager();
+            if (layoutManager == null) {
+                return 0;
+            }
+            return (layoutManager.canScrollVertically() ? AXIS_VERTICAL : 0)
+                    | (layoutManager.canScrollHorizontally() ? AXIS_HORIZONTAL : 0);
+        }
+        if (view instanceof CoordinatorLayout
+                && ((CoordinatorLayout) view).getChildCount() > 0
+                && ((CoordinatorLayout) view).getChildAt(0) instanceof AppBarLayout) {
+            return AXIS_VERTICAL;
+        }
+        if (view instanceof ScrollingView || view.isScrollContainer()) {
+            return AXIS_VERTICAL | AXIS_HORIZONTAL;
+        }
+        return 0;
+    }
+
+    private void add(View view, int axes) {
+        if (mSize == mViews.length) {
+            int capacity = mSize * 2;
+            View[] views = new View[capacity];
+            System.arraycopy(mViews, 0, views, 0, mSize);
+            mViews = views;
+            mAxes = grow(mAxes, capacity);
+            mLefts = grow(mLefts, capacity);
+            mTops = grow(mTops, capacity);
+            mRights = grow(mRights, capacity);
+            mBottoms = grow(mBottoms, capacity);
+            boolean[] shown = new boolean[capacity];
+            System.arraycopy(mShown, 0, shown, 0, mSize);
+            mShown = shown;
+        }
+        mViews[mSize] = view;
+        mAxes[mSize] = axes;
+        mTops[mSize] = Integer.MAX_VALUE;
+        mShown[mSize] = false;
+        mSize++;
+    }
+
+    private int[] grow(int[] array, int capacity) {
+        int[] grown = new int[capacity];
+        System.arraycopy(array, 0, grown, 0, mSize);
+        return grown;
+    }
+}
@@ -0,0 +1,129 @@
+package jarvis.com.library;
+
+import android.view.View;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function sheet fraction 驱动的属性绑定：绑定时为每个 1/64 采样格预先算好起始区段，每帧查表定位区段后
+ * 只做一次线性插值，关键帧不在采样格上也能精确还原
+ */
+final class SheetEffect {
+
+    /**
+     * 区段索引表的采样精度
+     */
+    private static final int TABLE_SIZE = 65;
+
+    final View target;
+
+    final @NestedTouchScrollingLayout.EffectProperty int property;
+
+    private final float[] mFractions;
+
+    private final float[] mValues;
+
+    /**
+     * 每段的 1 / 宽度，宽度为 0 的段（阶跃）为 0
+     */
+    private final float[] mInverseWidths;
+
+    /**
+     * 第 i 格起点所在的第一个区段
+     */
+    private final int[] mCellSegments = new int[TABLE_SIZE];
+
+    private float mLastValue = Float.NaN;
+
+    SheetEffect(View target, @NestedTouchScrollingLayout.EffectProperty int property, float[] fractions, float[] values) {
+        if (target == null) {
+            throw new IllegalArgumentException("target must not be null!!!");
+        }
+        if (fractions == null || values == null || fractions.length != values.length || fractions.length == 0) {
+            throw new IllegalArgumentException("fractions and values must be non-empty and the same length!!!");
+        }
+        for (int i = 1; i < fractions.length; i++) {
+            if (fractions[i] < fractions[i - 1]) {
+                throw new IllegalArgumentException("fractions must be ascending!!!");
+            }
+        }
+        this.target = target;
+        this.property = property;
+        mFractions = fractions.clone();
+        mValues = values.clone();
+        mInverseWidths = new float[Math.max(1, fractions.length - 1)];
+        bake();
+    }
+
+    private void bake() {
+        int last = mFractions.length - 1;
+        for (int i = 0; i < last; i++) {
+            float width = mFractions[i + 1] - mFractions[i];
+            mInverseWidths[i] = width == 0 ? 0 : 1 / width;
+        }
+        int segment = 0;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            float fraction = (float) i / (TABLE_SIZE - 1);
+            while (segment < last - 1 && mFractions[segment + 1] < fraction) {
+                segment++;
+            }
+            mCellSegments[i] = segment;
+        }
+    }
+
+    float valueAt(float fraction) {
+        int last = mFractions.length - 1;
+        if (fraction <= mFractions[0]) {
+            return mValues[0];
+        }
+        if (fraction >= mFractions[last]) {
+            return mValues[last];
+        }
+        int segment = mCellSegments[(int) ((fraction < 0 ? 0 : fraction > 1 ? 1 : fraction) * (TABLE_SIZE - 1))];
+        while (mFractions[segment + 1] < fraction) {
+            segment++;
+        }
+        float inverseWidth = mInverseWidths[segment];
+        if (inverseWidth == 0) {
+            return mValues[segment + 1];
+        }
+        return mValues[segment] + (mValues[segment + 1] - mValues[segment]) * (fraction - mFractions[segment]) * inverseWidth;
+    }
+
+    /**
+     * @param fraction 0 完全隐藏，1 完全展开
+     */
+    void apply(float fraction) {
+        float value = valueAt(fraction);
+        if (value == mLastValue) {
+            return;
+        }
+        mLastValue = value;
+        switch (property) {
+            case NestedTouchScrollingLayout.EffectProperty.ALPHA:
+                target.setAlpha(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.SCALE:
+                target.setScaleX(value);
+                target.setScaleY(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.SCALE_X:
+                target.setScaleX(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.SCALE_Y:
+                target.setScaleY(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.TRANSLATION_X:
+                target.setTranslationX(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.TRANSLATION_Y:
+                target.setTranslationY(value);
+                break;
+            case NestedTouchScrollingLayout.EffectProperty.ELEVATION:
+                target.setElevation(value);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package jarvis.com.library;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 按阶段（拖拽 / recover 回弹 / 交给 child / 空闲）统计 layout 负责的帧与掉帧数。
+ * 只统计真正发生绘制的帧：位移变化后的下一次窗口绘制（OnDrawListener），或 layout 自身的 dispatchDraw；
+ * 帧数与掉帧归到绘制时所处的阶段，手指停住不动时不计帧，也不会每个 vsync 唤醒。
+ * API 26+ 使用 FrameMetrics 判定掉帧，其余判定位移变化到开始绘制是否超过一个 vsync
+ */
+final class SheetJankMonitor {
+
+    static final int PHASE_COUNT = 4;
+
+    private static final int MAX_PENDING_FRAMES = 8;
+
+    private final int[] mFrameCounts = new int[PHASE_COUNT];
+    private final int[] mJankCounts = new int[PHASE_COUNT];
+
+    private final long[] mPendingVsync = new long[MAX_PENDING_FRAMES];
+    private final int[] mPendingPhase = new int[MAX_PENDING_FRAMES];
+    private int mPendingIndex;
+
+    private @NestedTouchScrollingLayout.SheetPhase int mPhase = NestedTouchScrollingLayout.SheetPhase.IDLE;
+
+    /**
+     * 上一个已统计帧的 vsync，同一帧内窗口绘制与 dispatchDraw 只计一次
+     */
+    private long mLastFrameTimeNanos = -1;
+
+    /**
+     * 上次绘制后第一次位移变化的时间，没有待绘制的位移时为 -1
+     */
+    private long mRequestTimeNanos = -1;
+
+    private long mFrameIntervalNanos = 16666667L;
+
+    private Window mWindow;
+    private Object mFrameMetricsListener;
+
+    private ViewTreeObserver mObserver;
+
+    private final ViewTreeObserver.OnDrawListener mDrawListener = new ViewTreeObserver.OnDrawListener() {
+        @Override
+        public void onDraw() {
+            onWindowDraw();
+        }
+    };
+
+    void attach(Window window, ViewTreeObserver observer, float refreshRate) {
+        if (refreshRate > 0) {
+            mFrameIntervalNanos = (long) (1000000000L / refreshRate);
+        }
+        if (mObserver == null && observer != null && observer.isAlive()) {
+            mObserver = observer;
+            observer.addOnDrawListener(mDrawListener);
+        }
+        if (window == null || mWindow != null || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        mWindow = window;
+        MetricsListener listener = new MetricsListener();
+        mFrameMetricsListener = listener;
+        window.addOnFrameMetricsAvailableListener(listener, new Handler(Looper.getMainLooper()));
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    void detach() {
+        if (mObserver != null) {
+            if (mObserver.isAlive()) {
+                mObserver.removeOnDrawListener(mDrawListener);
+            }
+            mObserver = null;
+        }
+        mLastFrameTimeNanos = -1;
+        mRequestTimeNanos = -1;
+        if (mWindow != null) {
+            mWindow.removeOnFrameMetricsAvailableListener((Window.OnFrameMetricsAvailableListener) mFrameMetricsListener);
+            mWindow = null;
+            mFrameMetricsListener = null;
+        }
+    }
+
+    void setPhase(@NestedTouchScrollingLayout.SheetPhase int phase) {
+        mPhase = phase;
+    }
+
+    /**
+     * child 位移发生变化，下一次窗口绘制由 layout 负责
+     */
+    void onTranslationChanged() {
+        if (mRequestTimeNanos < 0) {
+            mRequestTimeNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 窗口即将绘制，只有存在待绘制的位移时才计帧
+     */
+    void onWindowDraw() {
+        if (mRequestTimeNanos >= 0) {
+            onDraw();
+        }
+    }
+
+    /**
+     * layout 自身发生绘制，需在一帧的 traversal 内调用
+     */
+    void onDraw() {
+        long frameTimeNanos;
+        try {
+            frameTimeNanos = Choreographer.getInstance().getFrameTimeNanos();
+        } catch (IllegalStateException e) {
+            // 不在帧内的绘制（如绘制到 bitmap），不属于上屏帧
+            return;
+        }
+        onFrame(frameTimeNanos);
+    }
+
+    void onFrame(long frameTimeNanos) {
+        if (frameTimeNanos == mLastFrameTimeNanos) {
+            return;
+        }
+        int phase = mPhase;
+        mFrameCounts[phase]++;
+        if (mWindow != null) {
+            mPendingVsync[mPendingIndex] = frameTimeNanos;
+            mPendingPhase[mPendingIndex] = phase;
+            mPendingIndex = (mPendingIndex + 1) % MAX_PENDING_FRAMES;
+        } else if (mRequestTimeNanos >= 0 && frameTimeNanos - mRequestTimeNanos > mFrameIntervalNanos) {
+            // 位移在这一帧之前超过一个 vsync 就已发生，中间至少错过了一帧
+            mJankCounts[phase]++;
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        mRequestTimeNanos = -1;
+    }
+
+    private void onFrameMetrics(long vsyncNanos, long totalDurationNanos) {
+        for (int i = 0; i < MAX_PENDING_FRAMES; i++) {
+            if (mPendingVsync[i] == vsyncNanos) {
+                if (totalDurationNanos > mFrameIntervalNanos) {
+                    mJankCounts[mPendingPhase[i]]++;
+                }
+                mPendingVsync[i] = 0;
+                return;
+            }
+        }
+    }
+
+    SheetJankStats snapshot() {
+        return new SheetJankStats(mFrameCounts, mJankCounts);
+    }
+
+    void reset() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mFrameCounts[i] = 0;
+            mJankCounts[i] = 0;
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private final class MetricsListener implements Window.OnFrameMetricsAvailableListener {
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            onFrameMetrics(frameMetrics.getMetric(FrameMetrics.VSYNC_TIMESTAMP),
+                    frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package jarvis.com.library;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 分阶段帧统计快照，phase 取值见 {@link NestedTouchScrollingLayout.SheetPhase}
+ */
+public final class SheetJankStats {
+
+    private final int[] mFrameCounts;
+    private final int[] mJankCounts;
+
+    SheetJankStats(int[] frameCounts, int[] jankCounts) {
+        mFrameCounts = frameCounts.clone();
+        mJankCounts = jankCounts.clone();
+    }
+
+    /**
+     * 该阶段内 layout 负责的帧数
+     * @param phase
+     * @return
+     */
+    public int getFrameCount(@NestedTouchScrollingLayout.SheetPhase int phase) {
+        return mFrameCounts[phase];
+    }
+
+    /**
+     * 该阶段内错过 deadline 的帧数
+     * @param phase
+     * @return
+     */
+    public int getJankFrameCount(@NestedTouchScrollingLayout.SheetPhase int phase) {
+        return mJankCounts[phase];
+    }
+
+    @Override
+    public String toString() {
+        return "SheetJankStats{drag=" + mJankCounts[NestedTouchScrollingLayout.SheetPhase.DRAG] + "/" + mFrameCounts[NestedTouchScrollingLayout.SheetPhase.DRAG]
+                + ", settle=" + mJankCounts[NestedTouchScrollingLayout.SheetPhase.SETTLE] + "/" + mFrameCounts[NestedTouchScrollingLayout.SheetPhase.SETTLE]
+                + ", handoff=" + mJankCounts[NestedTouchScrollingLayout.SheetPhase.HANDOFF] + "/" + mFrameCounts[NestedTouchScrollingLayout.SheetPhase.HANDOFF]
+                + ", idle=" + mJankCounts[NestedTouchScrollingLayout.SheetPhase.IDLE] + "/" + mFrameCounts[NestedTouchScrollingLayout.SheetPhase.IDLE] + "}";
+    }
+}
@@ -0,0 +1,149 @@
+package jarvis.com.library;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.animation.AnimationUtils;
+import android.widget.EdgeEffect;
+
+import jarvis.com.library.core.SheetSettle;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 方向受限一侧的越界反馈，在 dispatchDraw 中对已录制的 child 做 canvas 缩放（stretch）或绘制 EdgeEffect（glow），
+ * 不改变 child 位移、不触发布局与回调，松手后按帧自行衰减
+ */
+final class SheetOverscroll {
+
+    /**
+     * 最大拉伸比例
+     */
+    private static final float MAX_STRETCH = 0.08f;
+
+    private static final long RELEASE_DURATION = 250;
+
+    private final @NestedTouchScrollingLayout.OverscrollEffect int mEffect;
+
+    private final EdgeEffect mTopGlow;
+    private final EdgeEffect mBottomGlow;
+
+    /**
+     * 越界距离，正数为顶部向下拉，负数为底部向上拉
+     */
+    private float mDistance;
+
+    private float mStretch;
+
+    /**
+     * 越界发生在顶部，stretch 以顶边为轴
+     */
+    private boolean isTopEdge;
+
+    private float mReleaseFrom;
+
+    private long mReleaseStart = -1;
+
+    SheetOverscroll(Context context, @NestedTouchScrollingLayout.OverscrollEffect int effect) {
+        mEffect = effect;
+        if (effect == NestedTouchScrollingLayout.OverscrollEffect.GLOW) {
+            mTopGlow = new EdgeEffect(context);
+            mBottomGlow = new EdgeEffect(context);
+        } else {
+            mTopGlow = null;
+            mBottomGlow = null;
+        }
+    }
+
+    /**
+     * @param distance 本次手势的越界距离
+     * @param width
+     * @param height
+     */
+    void onPull(float distance, int width, int height) {
+        if (height <= 0) {
+            return;
+        }
+        mReleaseStart = -1;
+        isTopEdge = distance > 0;
+        if (mEffect == NestedTouchScrollingLayout.OverscrollEffect.GLOW) {
+            EdgeEffect glow = isTopEdge ? mTopGlow : mBottomGlow;
+            boolean sameEdge = (distance > 0) == (mDistance > 0) && mDistance != 0;
+            float delta = Math.abs(distance) - (sameEdge ? Math.abs(mDistance) : 0);
+            glow.setSize(width, height);
+            if (delta > 0) {
+                glow.onPull(delta / height, 0.5f);
+            }
+        } else {
+            float abs = Math.abs(distance);
+            mStretch = MAX_STRETCH * abs / (abs + height);
+        }
+        mDistance = distance;
+    }
+
+    void onRelease() {
+        if (mEffect == NestedTouchScrollingLayout.OverscrollEffect.GLOW) {
+            mTopGlow.onRelease();
+            mBottomGlow.onRelease();
+        } else if (mStretch > 0) {
+            mReleaseFrom = mStretch;
+            mReleaseStart = AnimationUtils.currentAnimationTimeMillis();
+        }
+        mDistance = 0;
+    }
+
+    /**
+     * 本次手势是否仍在越界拉动
+     */
+    boolean isPulling() {
+        return mDistance != 0;
+    }
+
+    boolean isActive() {
+        if (mEffect == NestedTouchScrollingLayout.OverscrollEffect.GLOW) {
+            return !mTopGlow.isFinished() || !mBottomGlow.isFinished();
+        }
+        return mStretch > 0;
+    }
+
+    /**
+     * 在 child 绘制前调用，stretch 模式对 canvas 做缩放，越界一侧保持贴边
+     */
+    void beforeChildDraw(Canvas canvas, int height) {
+        if (mEffect != NestedTouchScrollingLayout.OverscrollEffect.STRETCH) {
+            return;
+        }
+        if (mReleaseStart >= 0) {
+            float input = (AnimationUtils.currentAnimationTimeMillis() - mReleaseStart) / (float) RELEASE_DURATION;
+            if (input >= 1) {
+                mStretch = 0;
+                mReleaseStart = -1;
+            } else {
+                mStretch = mReleaseFrom * (1 - SheetSettle.decelerate(input, 1.6f));
+            }
+        }
+        if (mStretch > 0) {
+            canvas.scale(1, 1 + mStretch, 0, isTopEdge ? 0 : height);
+        }
+    }
+
+    /**
+     * 在 child 绘制后调用
+     * @return 是否需要继续下一帧
+     */
+    boolean afterChildDraw(Canvas canvas, int width, int height) {
+        if (mEffect != NestedTouchScrollingLayout.OverscrollEffect.GLOW) {
+            return mReleaseStart >= 0;
+        }
+        boolean invalidate = false;
+        if (!mTopGlow.isFinished()) {
+            invalidate |= mTopGlow.draw(canvas);
+        }
+        if (!mBottomGlow.isFinished()) {
+            int save = canvas.save();
+            canvas.rotate(180, width / 2f, height / 2f);
+            invalidate |= mBottomGlow.draw(canvas);
+            canvas.restoreToCount(save);
+        }
+        return invalidate;
+    }
+}
@@ -0,0 +1,100 @@
+package jarvis.com.library;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.os.Build;
+import android.view.View;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 拖拽 / 回弹期间 child 的位图替身：运动开始时录制一次 child，API 28 起转为 HARDWARE bitmap 只占显存，
+ * 运动中 layout 按 child 当前的变换矩阵与 alpha 绘制这张位图，child 自身的 invalidate 不再重新录制；
+ * 超过内存上限或 child 带阴影时放弃替身，继续实时绘制
+ */
+final class SheetSnapshot {
+
+    private final Picture mPicture = new Picture();
+
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+
+    private int mMaxBytes;
+
+    SheetSnapshot(int maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    void setMaxBytes(int maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    boolean isCaptured() {
+        return mBitmap != null;
+    }
+
+    /**
+     * @param child
+     * @return 是否成功生成替身
+     */
+    boolean capture(View child) {
+        release();
+        int width = child.getWidth();
+        int height = child.getHeight();
+        if (width <= 0 || height <= 0 || (long) width * height * 4 > mMaxBytes) {
+            return false;
+        }
+        SheetTrace.beginSection("NTSL#captureSnapshot");
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                Canvas canvas = mPicture.beginRecording(width, height);
+                drawContent(child, canvas);
+                mPicture.endRecording();
+                mBitmap = Bitmap.createBitmap(mPicture);
+            } else {
+                mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                drawContent(child, new Canvas(mBitmap));
+            }
+        } catch (OutOfMemoryError e) {
+            mBitmap = null;
+        } finally {
+            SheetTrace.endSection();
+        }
+        return mBitmap != null;
+    }
+
+    private static void drawContent(View child, Canvas canvas) {
+        // draw 按 View 自身坐标绘制，scroll 偏移由 View 内部处理
+        canvas.translate(-child.getScrollX(), -child.getScrollY());
+        child.draw(canvas);
+    }
+
+    /**
+     * 阴影由 RenderNode 按 outline 绘制，位图无法还原
+     * @param child
+     * @return child 当前能否用替身代替
+     */
+    static boolean canReplace(View child) {
+        return child.getZ() <= 0;
+    }
+
+    void draw(Canvas canvas, View child) {
+        int save = canvas.save();
+        // 与 View 自身绘制一致：先移到 left / top，再以 pivot 为中心应用 translation / scale / rotation
+        canvas.translate(child.getLeft(), child.getTop());
+        canvas.concat(child.getMatrix());
+        mPaint.setAlpha(Math.round(child.getAlpha() * 255));
+        canvas.drawBitmap(mBitmap, 0, 0, mPaint);
+        canvas.restoreToCount(save);
+    }
+
+    void release() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package jarvis.com.library;
+
+import android.os.Trace;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function systrace / perfetto 埋点，运行时开关控制，关闭时只有一次 static 字段判断
+ */
+final class SheetTrace {
+
+    private static final String TAG = "NestedTouchScrolling";
+
+    /**
+     * [-BOXED_CACHE_RANGE, BOXED_CACHE_RANGE) 内的 cookie 与 counter 取值（sheet 位移、速度）装箱一次后复用
+     */
+    private static final int BOXED_CACHE_RANGE = 8192;
+
+    private static volatile boolean sEnabled;
+
+    private static long sTraceTagApp;
+    private static Method sAsyncTraceBegin;
+    private static Method sAsyncTraceEnd;
+    private static Method sTraceCounter;
+    private static boolean sReflectionResolved;
+
+    private static Long sBoxedTraceTag;
+    private static Integer[] sBoxedValues;
+
+    /**
+     * 反射调用复用的参数数组，避免 varargs 每次分配
+     */
+    private static final Object[] sArgs = new Object[3];
+
+    private SheetTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (enabled) {
+            resolveReflection();
+        }
+        sEnabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    static void beginSection(String name) {
+        if (sEnabled) {
+            Trace.beginSection(name);
+        }
+    }
+
+    static void endSection() {
+        if (sEnabled) {
+            Trace.endSection();
+        }
+    }
+
+    static void beginAsyncSection(String name, int cookie) {
+        if (sEnabled && sAsyncTraceBegin != null) {
+            invoke(sAsyncTraceBegin, name, cookie);
+        }
+    }
+
+    static void endAsyncSection(String name, int cookie) {
+        if (sEnabled && sAsyncTraceEnd != null) {
+            invoke(sAsyncTraceEnd, name, cookie);
+        }
+    }
+
+    static void setCounter(String name, int value) {
+        if (sEnabled && sTraceCounter != null) {
+            invoke(sTraceCounter, name, value);
+        }
+    }
+
+    /**
+     * async slice / counter 在 API 29 才公开，compileSdk 28 下与 androidx.tracing 一样反射 hide 接口
+     */
+    private static synchronized void resolveReflection() {
+        if (sReflectionResolved) {
+            return;
+        }
+        sReflectionResolved = true;
+        try {
+            sTraceTagApp = Trace.class.getField("TRACE_TAG_APP").getLong(null);
+            sBoxedTraceTag = sTraceTagApp;
+            sBoxedValues = new Integer[BOXED_CACHE_RANGE * 2];
+            sAsyncTraceBegin = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+            sAsyncTraceEnd = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+            sTraceCounter = Trace.class.getMethod("traceCounter", long.class, String.class, int.class);
+        } catch (Exception e) {
+            disableReflection(e);
+        }
+    }
+
+    /**
+     * 反射失败一次后不再尝试 async slice / counter，同步 section 不受影响
+     */
+    private static void disableReflection(Exception e) {
+        Log.w(TAG, "async trace unavailable", e);
+        sAsyncTraceBegin = null;
+        sAsyncTraceEnd = null;
+        sTraceCounter = null;
+    }
+
+    private static void invoke(Method method, String name, int value) {
+        synchronized (sArgs) {
+            sArgs[0] = sBoxedTraceTag;
+            sArgs[1] = name;
+            sArgs[2] = box(value);
+            try {
+                method.invoke(null, sArgs);
+            } catch (Exception e) {
+                disableReflection(e);
+            } finally {
+                sArgs[1] = null;
+                sArgs[2] = null;
+            }
+        }
+    }
+
+    private static Integer box(int value) {
+        if (value < -BOXED_CACHE_RANGE || value >= BOXED_CACHE_RANGE) {
+            return value;
+        }
+        int index = value + BOXED_CACHE_RANGE;
+        Integer boxed = sBoxedValues[index];
+        if (boxed == null) {
+            boxed = value;
+            sBoxedValues[index] = boxed;
+        }
+        return boxed;
+    }
+}
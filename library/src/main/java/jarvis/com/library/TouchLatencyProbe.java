@@ -0,0 +1,336 @@
+package jarvis.com.library;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import java.util.Arrays;
+
+/**
+ * @author yyf @ JarvisGG.io
+ * @since 10-19-2026
+ * @function 手指 -> 帧 延迟探针：MotionEvent eventTime 与应用对应 setTranslationY 的 Choreographer 帧关联，
+ * API 26+ 再通过 FrameMetrics 关联该帧的完成时间（INTENDED_VSYNC + TOTAL_DURATION，即 RenderThread 提交完成），
+ * 按手势统计分位数。完成时间不含合成与显示，并非真正的上屏延迟
+ */
+public final class TouchLatencyProbe implements Choreographer.FrameCallback {
+
+    private static final int MAX_SAMPLES = 512;
+
+    private static final int MAX_PENDING_FRAMES = 8;
+
+    /**
+     * 手势最后一帧的 FrameMetrics 最多等待的时间，没有真正绘制的帧不会回调
+     */
+    private static final long COMPLETION_TIMEOUT_MILLIS = 200;
+
+    public interface OnGestureLatencyListener {
+        /**
+         * 一次手势结束：UP / CANCEL 之后的首帧结束后，API 26+ 再等待已绘制帧的完成时间全部到达（最多 200ms）
+         * @param latency
+         */
+        void onGestureLatency(GestureLatency latency);
+    }
+
+    /**
+     * 单次手势的延迟分位数，单位 ns，completion 不可用时为 -1
+     */
+    public static final class GestureLatency {
+
+        private final int mFrameCount;
+        private final long mFrameP50;
+        private final long mFrameP90;
+        private final long mFrameP99;
+        private final long mFrameMax;
+        private final int mCompletionCount;
+        private final long mCompletionP50;
+        private final long mCompletionP90;
+        private final long mCompletionP99;
+        private final long mCompletionMax;
+
+        GestureLatency(long[] frames, int frameCount, long[] completions, int completionCount) {
+            Arrays.sort(frames, 0, frameCount);
+            Arrays.sort(completions, 0, completionCount);
+            mFrameCount = frameCount;
+            mFrameP50 = percentile(frames, frameCount, 0.5f);
+            mFrameP90 = percentile(frames, frameCount, 0.9f);
+            mFrameP99 = percentile(frames, frameCount, 0.99f);
+            mFrameMax = percentile(frames, frameCount, 1f);
+            mCompletionCount = completionCount;
+            mCompletionP50 = percentile(completions, completionCount, 0.5f);
+            mCompletionP90 = percentile(completions, completionCount, 0.9f);
+            mCompletionP99 = percentile(completions, completionCount, 0.99f);
+            mCompletionMax = percentile(completions, completionCount, 1f);
+        }
+
+        private static long percentile(long[] sorted, int count, float p) {
+            if (count == 0) {
+                return -1;
+            }
+            int index = (int) Math.ceil(p * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+
+        public int getFrameCount() {
+            return mFrameCount;
+        }
+
+        public long getFrameP50() {
+            return mFrameP50;
+        }
+
+        public long getFrameP90() {
+            return mFrameP90;
+        }
+
+        public long getFrameP99() {
+            return mFrameP99;
+        }
+
+        public long getFrameMax() {
+            return mFrameMax;
+        }
+
+        public int getCompletionCount() {
+            return mCompletionCount;
+        }
+
+        public long getCompletionP50() {
+            return mCompletionP50;
+        }
+
+        public long getCompletionP90() {
+            return mCompletionP90;
+        }
+
+        public long getCompletionP99() {
+            return mCompletionP99;
+        }
+
+        public long getCompletionMax() {
+            return mCompletionMax;
+        }
+
+        @Override
+        public String toString() {
+            return "GestureLatency{frames=" + mFrameCount
+                    + ", frameP50=" + mFrameP50
+                    + ", frameP90=" + mFrameP90
+                    + ", frameP99=" + mFrameP99
+                    + ", frameMax=" + mFrameMax
+                    + ", completions=" + mCompletionCount
+                    + ", completionP50=" + mCompletionP50
+                    + ", completionP90=" + mCompletionP90
+                    + ", completionP99=" + mCompletionP99
+                    + ", completionMax=" + mCompletionMax + "}";
+        }
+    }
+
+    private final long[] mFrameSamples = new long[MAX_SAMPLES];
+    private int mFrameSampleCount;
+
+    private final long[] mCompletionSamples = new long[MAX_SAMPLES];
+    private int mCompletionSampleCount;
+
+    /**
+     * 已绘制帧的 vsync 与对应 eventTime，等待 FrameMetrics 回来做完成时间关联
+     */
+    private final long[] mPendingVsync = new long[MAX_PENDING_FRAMES];
+    private final long[] mPendingEventTime = new long[MAX_PENDING_FRAMES];
+    private int mPendingIndex;
+
+    private long mCurrentEventTimeNanos = -1;
+
+    /**
+     * 本帧内第一个产生位移的 event
+     */
+    private long mAppliedEventTimeNanos = -1;
+
+    private boolean isGestureActive;
+    private boolean isGestureEnding;
+    private boolean isFramePosted;
+
+    /**
+     * 手势帧已全部绘制，等待剩余 FrameMetrics
+     */
+    private boolean isAwaitingCompletion;
+
+    private GestureLatency mLastGestureLatency;
+
+    private OnGestureLatencyListener mListener;
+
+    private Window mWindow;
+    private Object mFrameMetricsListener;
+    private Handler mHandler;
+
+    private final Runnable mCompletionTimeout = new Runnable() {
+        @Override
+        public void run() {
+            if (isAwaitingCompletion) {
+                finishGesture();
+            }
+        }
+    };
+
+    void attach(Window window) {
+        if (window == null || mWindow != null || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        mWindow = window;
+        mHandler = new Handler(Looper.getMainLooper());
+        CompletionListener listener = new CompletionListener();
+        mFrameMetricsListener = listener;
+        window.addOnFrameMetricsAvailableListener(listener, mHandler);
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    void detach() {
+        if (isFramePosted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            isFramePosted = false;
+        }
+        isGestureActive = false;
+        isGestureEnding = false;
+        isAwaitingCompletion = false;
+        if (mWindow != null) {
+            mHandler.removeCallbacks(mCompletionTimeout);
+            mWindow.removeOnFrameMetricsAvailableListener((Window.OnFrameMetricsAvailableListener) mFrameMetricsListener);
+            mWindow = null;
+            mFrameMetricsListener = null;
+        }
+    }
+
+    void onGestureStart() {
+        if (isAwaitingCompletion) {
+            // 上一次手势的完成时间还没到齐，先按已有样本结算
+            finishGesture();
+        }
+        mFrameSampleCount = 0;
+        mCompletionSampleCount = 0;
+        mAppliedEventTimeNanos = -1;
+        isGestureActive = true;
+        isGestureEnding = false;
+    }
+
+    void onInputEvent(long eventTimeMillis) {
+        mCurrentEventTimeNanos = eventTimeMillis * 1000000L;
+    }
+
+    void onTranslationApplied() {
+        if (!isGestureActive || isAwaitingCompletion || mCurrentEventTimeNanos < 0) {
+            return;
+        }
+        if (mAppliedEventTimeNanos < 0) {
+            mAppliedEventTimeNanos = mCurrentEventTimeNanos;
+        }
+        if (!isFramePosted) {
+            isFramePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void onGestureEnd() {
+        if (!isGestureActive || isAwaitingCompletion) {
+            return;
+        }
+        if (isFramePosted) {
+            isGestureEnding = true;
+        } else {
+            awaitCompletion();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFramePosted = false;
+        if (mAppliedEventTimeNanos >= 0) {
+            if (mFrameSampleCount < MAX_SAMPLES) {
+                mFrameSamples[mFrameSampleCount++] = Math.max(0, frameTimeNanos - mAppliedEventTimeNanos);
+            }
+            mPendingVsync[mPendingIndex] = frameTimeNanos;
+            mPendingEventTime[mPendingIndex] = mAppliedEventTimeNanos;
+            mPendingIndex = (mPendingIndex + 1) % MAX_PENDING_FRAMES;
+            mAppliedEventTimeNanos = -1;
+        }
+        if (isGestureEnding) {
+            isGestureEnding = false;
+            awaitCompletion();
+        }
+    }
+
+    /**
+     * FrameMetrics 在帧提交完成后才异步回调，最后一个已绘制帧到达或超时后再结算
+     */
+    private void awaitCompletion() {
+        if (mWindow == null || !hasPendingVsync()) {
+            finishGesture();
+            return;
+        }
+        isAwaitingCompletion = true;
+        mHandler.postDelayed(mCompletionTimeout, COMPLETION_TIMEOUT_MILLIS);
+    }
+
+    private boolean hasPendingVsync() {
+        for (int i = 0; i < MAX_PENDING_FRAMES; i++) {
+            if (mPendingVsync[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onFrameCompleted(long vsyncNanos, long completionNanos) {
+        if (!isGestureActive) {
+            return;
+        }
+        for (int i = 0; i < MAX_PENDING_FRAMES; i++) {
+            if (mPendingVsync[i] == vsyncNanos) {
+                if (mCompletionSampleCount < MAX_SAMPLES) {
+                    mCompletionSamples[mCompletionSampleCount++] = Math.max(0, completionNanos - mPendingEventTime[i]);
+                }
+                mPendingVsync[i] = 0;
+                if (isAwaitingCompletion && !hasPendingVsync()) {
+                    finishGesture();
+                }
+                return;
+            }
+        }
+    }
+
+    private void finishGesture() {
+        if (isAwaitingCompletion) {
+            isAwaitingCompletion = false;
+            mHandler.removeCallbacks(mCompletionTimeout);
+        }
+        isGestureActive = false;
+        isGestureEnding = false;
+        mCurrentEventTimeNanos = -1;
+        Arrays.fill(mPendingVsync, 0);
+        mLastGestureLatency = new GestureLatency(mFrameSamples, mFrameSampleCount, mCompletionSamples, mCompletionSampleCount);
+        if (mListener != null) {
+            mListener.onGestureLatency(mLastGestureLatency);
+        }
+    }
+
+    GestureLatency getLastGestureLatency() {
+        return mLastGestureLatency;
+    }
+
+    void setOnGestureLatencyListener(OnGestureLatencyListener listener) {
+        mListener = listener;
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private final class CompletionListener implements Window.OnFrameMetricsAvailableListener {
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            long vsync = frameMetrics.getMetric(FrameMetrics.VSYNC_TIMESTAMP);
+            long total = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+            onFrameCompleted(vsync, frameMetrics.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP) + total);
+        }
+    }
+}
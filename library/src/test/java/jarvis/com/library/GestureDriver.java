@@ -0,0 +1,88 @@
+package jarvis.com.library;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * 按帧间隔合成单指 MotionEvent 序列并派发给目标 View，同时统计每次手势的处理耗时
+ */
+final class GestureDriver {
+
+    private static final long FRAME_MILLIS = 16;
+
+    private final View mTarget;
+
+    private long mDownTime;
+    private long mEventTime;
+    private float mX;
+    private float mY;
+
+    private long mGestureNanos;
+    private long mLastGestureNanos;
+
+    private int mGestureEvents;
+    private int mLastGestureEvents;
+
+    GestureDriver(View target) {
+        mTarget = target;
+    }
+
+    GestureDriver down(float x, float y) {
+        mDownTime = SystemClock.uptimeMillis();
+        mEventTime = mDownTime;
+        mGestureNanos = 0;
+        mGestureEvents = 0;
+        return dispatch(MotionEvent.ACTION_DOWN, x, y);
+    }
+
+    GestureDriver moveTo(float x, float y) {
+        mEventTime += FRAME_MILLIS;
+        return dispatch(MotionEvent.ACTION_MOVE, x, y);
+    }
+
+    /**
+     * 竖直方向分 steps 次移动 dy
+     */
+    GestureDriver dragBy(float dy, int steps) {
+        float startY = mY;
+        for (int i = 1; i <= steps; i++) {
+            moveTo(mX, startY + dy * i / steps);
+        }
+        return this;
+    }
+
+    GestureDriver up() {
+        mEventTime += FRAME_MILLIS;
+        dispatch(MotionEvent.ACTION_UP, mX, mY);
+        mLastGestureNanos = mGestureNanos;
+        mLastGestureEvents = mGestureEvents;
+        return this;
+    }
+
+    /**
+     * 最近一次完整手势（DOWN 到 UP）中各 event 派发耗时之和，手势未结束前保持上一次的值
+     */
+    long getLastGestureNanos() {
+        return mLastGestureNanos;
+    }
+
+    /**
+     * 最近一次完整手势派发的 event 数，含 DOWN 与 UP
+     */
+    int getLastGestureEvents() {
+        return mLastGestureEvents;
+    }
+
+    private GestureDriver dispatch(int action, float x, float y) {
+        mX = x;
+        mY = y;
+        MotionEvent event = MotionEvent.obtain(mDownTime, mEventTime, action, x, y, 0);
+        long start = System.nanoTime();
+        mTarget.dispatchTouchEvent(event);
+        mGestureNanos += System.nanoTime() - start;
+        mGestureEvents++;
+        event.recycle();
+        return this;
+    }
+}
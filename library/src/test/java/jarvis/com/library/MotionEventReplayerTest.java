@@ -0,0 +1,117 @@
+package jarvis.com.library;
+
+import android.app.Activity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class MotionEventReplayerTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1000;
+
+    private Activity mActivity;
+    private FrameLayout mRoot;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mRoot = new FrameLayout(mActivity);
+        mActivity.setContentView(mRoot);
+    }
+
+    @Test
+    public void recordSerializeReplay_reproducesGesture() throws IOException {
+        NestedTouchScrollingLayout recorded = createLayout();
+        MotionEventRecorder recorder = new MotionEventRecorder();
+        recorded.setMotionEventRecorder(recorder);
+        recorder.start();
+        new GestureDriver(recorded)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        byte[] recording = recorder.stop();
+
+        List<MotionEvent> events = MotionEventReplayer.read(recording, 5000);
+        assertEquals(6, events.size());
+        assertEquals(MotionEvent.ACTION_DOWN, events.get(0).getActionMasked());
+        assertEquals(5000, events.get(0).getEventTime());
+        assertEquals(5000 + 16 * 4, events.get(4).getEventTime());
+        assertEquals(700, events.get(4).getY(), 0);
+        assertEquals(MotionEvent.ACTION_UP, events.get(5).getActionMasked());
+        for (MotionEvent event : events) {
+            event.recycle();
+        }
+
+        MotionEventReplayer.Result result = MotionEventReplayer.replay(createLayout(), recording);
+
+        assertEquals(6, result.getEventCount());
+        assertEquals(recorded.getChildAt(0).getTranslationY(), result.getSheetPosition(5), 0);
+    }
+
+    @Test
+    public void checkedInRecording_dragDownRelease() throws IOException {
+        byte[] recording = readRecording("recordings/drag_down_release.ntsr");
+
+        MotionEventReplayer.Result result = MotionEventReplayer.replay(createLayout(), recording);
+
+        assertEquals(6, result.getEventCount());
+        assertEquals(0, result.getSheetPosition(0), 0);
+        for (int i = 1; i < result.getEventCount(); i++) {
+            assertTrue(result.getSheetPosition(i) >= result.getSheetPosition(i - 1));
+        }
+        assertEquals(200, result.getSheetPosition(4), 0.5f);
+        List<String> callbacks = result.getCallbacks();
+        assertTrue(callbacks.toString(), callbacks.get(callbacks.size() - 2).startsWith("fingerUp:"));
+        assertTrue(callbacks.toString(), callbacks.get(callbacks.size() - 1).startsWith("release:"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFormat_isRejected() {
+        MotionEventReplayer.replay(createLayout(), new byte[]{1, 2, 3, 4, 5, 6});
+    }
+
+    private NestedTouchScrollingLayout createLayout() {
+        NestedTouchScrollingLayout layout = new NestedTouchScrollingLayout(mActivity);
+        layout.addView(new View(mActivity), new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mRoot.removeAllViews();
+        mRoot.addView(layout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mRoot.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRoot.layout(0, 0, WIDTH, HEIGHT);
+        return layout;
+    }
+
+    private byte[] readRecording(String path) throws IOException {
+        InputStream in = getClass().getClassLoader().getResourceAsStream(path);
+        assertNotNull(path, in);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
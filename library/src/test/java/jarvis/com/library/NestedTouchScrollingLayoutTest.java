@@ -0,0 +1,863 @@
+package jarvis.com.library;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.MessageQueue;
+import android.support.design.widget.AppBarLayout;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ContextThemeWrapper;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 在 JVM 上用合成 MotionEvent 驱动 NestedTouchScrollingLayout，校验位移、hold / release 切换与回调顺序
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NestedTouchScrollingLayoutTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1000;
+
+    private Activity mActivity;
+    private RecordingFrameLayout mRoot;
+    private NestedTouchScrollingLayout mLayout;
+    private final List<String> mCallbacks = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mRoot = new RecordingFrameLayout(mActivity);
+        mActivity.setContentView(mRoot);
+    }
+
+    @Test
+    public void plainChild_dragDown_translatesSheet() {
+        View child = attach(new View(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700);
+
+        assertEquals(200, child.getTranslationY(), 0.5f);
+    }
+
+    @Test
+    public void verticalDrag_disallowsAncestorInterceptOnce() {
+        attach(new View(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 10)
+                .up();
+
+        assertEquals(1, mRoot.disallowRequests);
+    }
+
+    @Test
+    public void horizontalDrag_leavesAncestorInterceptEnabled() {
+        attach(new View(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(300, 500)
+                .moveTo(400, 500)
+                .moveTo(500, 500)
+                .moveTo(600, 500)
+                .up();
+
+        assertEquals(0, mRoot.disallowRequests);
+    }
+
+    @Test
+    public void plainChild_release_callbackOrder() {
+        attach(new View(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700)
+                .up();
+
+        int fingerUp = mCallbacks.indexOf("fingerUp");
+        int release = mCallbacks.indexOf("release");
+        assertTrue(mCallbacks.toString(), mCallbacks.indexOf("change") >= 0);
+        assertTrue(mCallbacks.toString(), fingerUp >= 0 && fingerUp < release);
+        assertEquals(mCallbacks.toString(), mCallbacks.size() - 1, release);
+    }
+
+    @Test
+    public void overscrollReplacesTranslation_keepsChildAtRest() {
+        View child = attach(new View(mActivity));
+        mLayout.setOverscrollEffect(NestedTouchScrollingLayout.OverscrollEffect.STRETCH);
+        mLayout.setOverscrollReplacesTranslation(true);
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+
+        assertEquals(0, child.getTranslationY(), 0);
+        assertFalse(mCallbacks.toString(), mCallbacks.contains("change"));
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.IDLE, mLayout.getSheetPhase());
+    }
+
+    @Test
+    public void unchangedPixelOffset_skipsCallbacks() {
+        View child = attach(new View(mActivity));
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+        int changes = Collections.frequency(mCallbacks, "change");
+
+        driver.moveTo(541, 700)
+                .moveTo(539, 700);
+
+        assertEquals(changes, Collections.frequency(mCallbacks, "change"));
+        assertEquals(200, child.getTranslationY(), 0);
+    }
+
+    @Test
+    public void fullyHiddenChild_isInvisibleUntilDraggedBack() {
+        View child = attach(new View(mActivity));
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 0)
+                .dragBy(HEIGHT + 400, 14);
+
+        assertEquals(View.INVISIBLE, child.getVisibility());
+
+        driver.moveTo(540, 600);
+
+        assertEquals(View.VISIBLE, child.getVisibility());
+    }
+
+    @Test
+    public void sheetVisibilityCallbacks_fireOncePerTransition() {
+        attach(new View(mActivity));
+        final List<String> events = new ArrayList<>();
+        mLayout.registerSheetVisibilityCallback(new NestedTouchScrollingLayout.ISheetVisibilityChange() {
+            @Override
+            public void onSheetVisible() {
+                events.add("visible");
+            }
+
+            @Override
+            public void onSheetHidden() {
+                events.add("hidden");
+            }
+
+            @Override
+            public void onSheetSettled(int offset) {
+                events.add("settled");
+            }
+        });
+
+        new GestureDriver(mLayout)
+                .down(540, 0)
+                .dragBy(HEIGHT + 400, 14)
+                .moveTo(540, 600);
+
+        assertEquals(Arrays.asList("hidden", "visible"), events);
+    }
+
+    @Test
+    public void viewport_publishedAtRestOnly() {
+        attach(new View(mActivity));
+        final List<String> viewports = new ArrayList<>();
+        mLayout.registerViewportCallback(new NestedTouchScrollingLayout.ISheetViewport() {
+            @Override
+            public void onViewportChanged(int top, int bottom) {
+                viewports.add(top + "," + bottom);
+            }
+        });
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+
+        assertEquals(Arrays.asList("0," + HEIGHT, "0," + (HEIGHT - 200)), viewports);
+    }
+
+    @Test
+    public void visibleHeightMeasure_shrinksAtRest_expandsWhenDraggedUp() {
+        View child = attach(new View(mActivity));
+        mLayout.setVisibleHeightMeasureEnabled(true);
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        relayout();
+
+        assertEquals(HEIGHT - 200, child.getHeight());
+
+        driver.down(540, 700)
+                .dragBy(-400, 4);
+        relayout();
+
+        assertEquals(HEIGHT, child.getHeight());
+    }
+
+    @Test
+    public void visibleHeightMeasure_fullyHidden_keepsPreviousHeight() {
+        View child = attach(new View(mActivity));
+        mLayout.setVisibleHeightMeasureEnabled(true);
+
+        new GestureDriver(mLayout)
+                .down(540, 0)
+                .dragBy(HEIGHT + 400, 14)
+                .up();
+        relayout();
+
+        assertEquals(View.INVISIBLE, child.getVisibility());
+        assertEquals(HEIGHT, child.getHeight());
+    }
+
+    @Test
+    public void expand_publishesSettleTargetBeforeFirstFrame() {
+        attach(new View(mActivity));
+        final List<String> settles = new ArrayList<>();
+        mLayout.addSheetPrefetch(new NestedTouchScrollingLayout.ISheetPrefetch() {
+            @Override
+            public void onSettleTarget(NestedTouchScrollingLayout layout, int from, int target, long duration) {
+                settles.add(from + "->" + target);
+            }
+
+            @Override
+            public void onSettleEnd(NestedTouchScrollingLayout layout, boolean canceled) {
+                settles.add("end");
+            }
+        });
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        assertEquals(Collections.singletonList("end"), settles);
+        settles.clear();
+
+        mLayout.expand();
+
+        assertEquals("200->0", settles.get(0));
+        assertEquals(0, mLayout.getSettleTarget());
+    }
+
+    @Test
+    public void recyclerViewPrefetcher_rowsBoundAtRest_areConsumedByOpeningLayout() {
+        RecyclerView recyclerView = createRecyclerView(mActivity);
+        CountingAdapter adapter = (CountingAdapter) recyclerView.getAdapter();
+        RecyclerViewPrefetcher prefetcher = new RecyclerViewPrefetcher(recyclerView);
+        attach(recyclerView);
+        mLayout.setVisibleHeightMeasureEnabled(true);
+        mLayout.addSheetPrefetch(prefetcher);
+        ShadowLooper.pauseMainLooper();
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(800, 8)
+                .up();
+        relayout();
+        int restingRows = recyclerView.getChildCount();
+        int restingBinds = adapter.binds;
+
+        prefetcher.runFrame(Long.MAX_VALUE);
+
+        assertTrue(adapter.binds > restingBinds);
+        assertTrue(prefetcher.prefetchedCount() > 0);
+        int prefetchedBinds = adapter.binds;
+
+        mLayout.expand();
+        relayout();
+
+        assertTrue(recyclerView.getChildCount() > restingRows);
+        assertEquals(prefetchedBinds, adapter.binds);
+        assertEquals(0, prefetcher.prefetchedCount());
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.O_MR1)
+    public void dragSnapshot_capturedWhileDragging_releasedAtRest() {
+        attach(new View(mActivity));
+        mLayout.setDragSnapshotEnabled(true);
+
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+        assertTrue(mLayout.isSnapshotCaptured());
+
+        driver.up();
+        assertFalse(mLayout.isSnapshotCaptured());
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.O_MR1)
+    public void dragSnapshot_childGainsElevation_fallsBackToLiveDrawing() {
+        View child = attach(new View(mActivity));
+        mLayout.setDragSnapshotEnabled(true);
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+        assertTrue(mLayout.isSnapshotCaptured());
+
+        child.setElevation(8);
+        mRoot.draw(new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888)));
+
+        assertFalse(mLayout.isSnapshotCaptured());
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.O_MR1)
+    public void dragSnapshot_elevatedChild_isNotCaptured() {
+        View child = attach(new View(mActivity));
+        child.setElevation(8);
+        mLayout.setDragSnapshotEnabled(true);
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+
+        assertFalse(mLayout.isSnapshotCaptured());
+    }
+
+    @Test
+    public void bindSheetEffect_appliesCurrentFractionImmediately() {
+        attach(new View(mActivity));
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        View scrim = new View(mActivity);
+
+        mLayout.bindSheetEffect(scrim, NestedTouchScrollingLayout.EffectProperty.ALPHA, new float[]{0, 1}, new float[]{0, 1});
+
+        assertEquals(1 - 200f / HEIGHT, scrim.getAlpha(), 1e-4f);
+    }
+
+    @Test
+    public void directionClamp_updatesSheetEffectsAndCallbacks() {
+        View child = attach(new View(mActivity));
+        mLayout.setSheetDirection(NestedTouchScrollingLayout.SheetDirection.BOTTOM);
+        View scrim = new View(mActivity);
+        mLayout.bindSheetEffect(scrim, NestedTouchScrollingLayout.EffectProperty.ALPHA, new float[]{0, 1}, new float[]{0, 1});
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+        assertEquals(1 - 200f / HEIGHT, scrim.getAlpha(), 1e-4f);
+        mCallbacks.clear();
+
+        driver.moveTo(540, 0);
+
+        assertEquals(0, child.getTranslationY(), 0);
+        assertEquals(1, scrim.getAlpha(), 1e-4f);
+        assertEquals(Collections.singletonList("change"), mCallbacks);
+    }
+
+    @Test
+    public void scrimTap_abovePeekedSheet_hides() {
+        attach(new View(mActivity));
+        mLayout.setScrimColor(0x80000000);
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        ShadowLooper.pauseMainLooper();
+
+        driver.down(540, 100)
+                .up();
+
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.SETTLE, mLayout.getSheetPhase());
+        assertEquals(HEIGHT, mLayout.getSettleTarget());
+    }
+
+    @Test
+    public void scrimDrag_leavesTranslationUnchanged() {
+        View child = attach(new View(mActivity));
+        mLayout.setScrimColor(0x80000000);
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        int changes = Collections.frequency(mCallbacks, "change");
+        ShadowLooper.pauseMainLooper();
+
+        driver.down(540, 100)
+                .dragBy(300, 6)
+                .up();
+
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.IDLE, mLayout.getSheetPhase());
+        assertEquals(200, child.getTranslationY(), 0);
+        assertEquals(changes, Collections.frequency(mCallbacks, "change"));
+    }
+
+    @Test
+    public void lazyContent_openBeforeInflate_replaysRecoverFromPlaceholderOffset() {
+        final List<View> inflated = new ArrayList<>();
+        DeferredInflater inflater = attachLazy(new NestedTouchScrollingLayout.OnContentInflatedListener() {
+            @Override
+            public void onContentInflated(View content) {
+                inflated.add(content);
+            }
+        });
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        ShadowLooper.pauseMainLooper();
+
+        mLayout.expand();
+
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.IDLE, mLayout.getSheetPhase());
+        assertTrue(inflater.isPending());
+
+        View content = new View(mActivity);
+        inflater.finish(content);
+
+        assertEquals(Collections.singletonList(content), inflated);
+        assertEquals(1, mLayout.getChildCount());
+        assertEquals(content, mLayout.getChildAt(0));
+        assertEquals(200, content.getTranslationY(), 0);
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.SETTLE, mLayout.getSheetPhase());
+        assertEquals(0, mLayout.getSettleTarget());
+    }
+
+    @Test
+    public void lazyContent_hideBeforeInflate_cancelsPendingOpen() {
+        DeferredInflater inflater = attachLazy(null);
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4)
+                .up();
+        ShadowLooper.pauseMainLooper();
+        mLayout.expand();
+
+        mLayout.hiden();
+        inflater.finish(new View(mActivity));
+
+        assertEquals(NestedTouchScrollingLayout.SheetPhase.SETTLE, mLayout.getSheetPhase());
+        assertEquals(HEIGHT, mLayout.getSettleTarget());
+    }
+
+    @Test
+    public void prewarm_runsOneStepPerIdle_thenRemovesItself() {
+        View child = attach(new View(mActivity));
+        new GestureDriver(mLayout)
+                .down(540, 0)
+                .dragBy(HEIGHT + 400, 14)
+                .up();
+        ShadowLooper.pauseMainLooper();
+        mLayout.setScrollableIndexEnabled(true);
+        child.requestLayout();
+        mLayout.prewarm(true);
+        MessageQueue.IdleHandler prewarm = mLayout.getPrewarmHandler();
+
+        assertTrue(prewarm.queueIdle());
+        assertFalse(mLayout.isScrollableIndexReady());
+
+        assertTrue(prewarm.queueIdle());
+        assertTrue(mLayout.isScrollableIndexReady());
+        assertTrue(child.isLayoutRequested());
+
+        assertTrue(prewarm.queueIdle());
+        assertFalse(child.isLayoutRequested());
+
+        assertFalse(prewarm.queueIdle());
+    }
+
+    @Test
+    public void prewarm_withoutContent_stopsAfterScrollableIndex() {
+        attach(new View(mActivity));
+        mLayout.setScrollableIndexEnabled(true);
+        mLayout.prewarm(false);
+        MessageQueue.IdleHandler prewarm = mLayout.getPrewarmHandler();
+
+        assertTrue(prewarm.queueIdle());
+        assertFalse(prewarm.queueIdle());
+        assertTrue(mLayout.isScrollableIndexReady());
+    }
+
+    @Test
+    public void prewarm_waitsWhileFingerIsDown() {
+        attach(new View(mActivity));
+        mLayout.setScrollableIndexEnabled(true);
+        mLayout.prewarm(false);
+        MessageQueue.IdleHandler prewarm = mLayout.getPrewarmHandler();
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .dragBy(400, 4);
+
+        assertTrue(prewarm.queueIdle());
+        assertTrue(prewarm.queueIdle());
+
+        driver.up();
+        assertTrue(prewarm.queueIdle());
+        assertFalse(prewarm.queueIdle());
+    }
+
+    @Test
+    public void scrollableChild_holdsTouch_whileItCanScroll() {
+        ScrollableStubView child = attach(new ScrollableStubView(mActivity));
+        child.canScrollUp = true;
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600);
+
+        assertEquals(0, child.getTranslationY(), 0.5f);
+        assertTrue(child.actions.contains(MotionEvent.ACTION_MOVE));
+    }
+
+    @Test
+    public void holdReleaseTransitions() {
+        ScrollableStubView child = attach(new ScrollableStubView(mActivity));
+        child.canScrollUp = true;
+
+        GestureDriver driver = new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600);
+        assertEquals(0, child.getTranslationY(), 0.5f);
+
+        // child 滚到顶，layout 接管并通知 child CANCEL
+        child.canScrollUp = false;
+        driver.moveTo(540, 700)
+                .moveTo(540, 800);
+        assertEquals(100, child.getTranslationY(), 0.5f);
+        int cancel = child.actions.lastIndexOf(MotionEvent.ACTION_CANCEL);
+        assertTrue(child.actions.toString(), cancel >= 0);
+
+        // 反向拖动且 child 可以继续滚动，layout 归位并重新派发 DOWN
+        child.canScrollDown = true;
+        driver.moveTo(540, 750)
+                .moveTo(540, 650);
+        assertEquals(0, child.getTranslationY(), 0.5f);
+        assertTrue(child.actions.toString(), child.actions.lastIndexOf(MotionEvent.ACTION_DOWN) > cancel);
+    }
+
+    @Test
+    public void recyclerView_atTop_dragUp_childScrolls() {
+        RecyclerView child = attach(createRecyclerView(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(540, 700)
+                .moveTo(540, 600)
+                .moveTo(540, 500)
+                .moveTo(540, 400)
+                .up();
+
+        assertEquals(0, child.getTranslationY(), 0.5f);
+        assertTrue(child.computeVerticalScrollOffset() > 0);
+    }
+
+    @Test
+    public void recyclerView_atTop_dragDown_translatesSheet() {
+        RecyclerView child = attach(createRecyclerView(mActivity));
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700);
+
+        assertEquals(200, child.getTranslationY(), 0.5f);
+    }
+
+    @Test
+    public void scrollableIndex_recyclerView_matchesRecursiveHitTest() {
+        RecyclerView child = attach(createRecyclerView(mActivity));
+        mLayout.setScrollableIndexEnabled(true);
+        relayout();
+        assertTrue(mLayout.isScrollableIndexReady());
+
+        new GestureDriver(mLayout)
+                .down(540, 700)
+                .moveTo(540, 600)
+                .moveTo(540, 500)
+                .moveTo(540, 400)
+                .up();
+        assertEquals(0, child.getTranslationY(), 0.5f);
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700);
+        assertEquals(200, child.getTranslationY(), 0.5f);
+    }
+
+    @Test
+    public void webView_atTop_dragDownTranslates_dragUpHolds() {
+        StubWebView child = attach(new StubWebView(mActivity));
+        child.contentHeight = HEIGHT * 3;
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700)
+                .up();
+        assertEquals(200, child.getTranslationY(), 0.5f);
+
+        child.setTranslationY(0);
+        new GestureDriver(mLayout)
+                .down(540, 700)
+                .moveTo(540, 600)
+                .moveTo(540, 500)
+                .moveTo(540, 400);
+        assertEquals(0, child.getTranslationY(), 0.5f);
+    }
+
+    @Test
+    public void coordinatorAppBar_atTop_dragDown_translatesSheet() {
+        Context context = new ContextThemeWrapper(mActivity, R.style.Theme_AppCompat_Light_NoActionBar);
+        CoordinatorLayout coordinator = new CoordinatorLayout(context);
+
+        AppBarLayout appBar = new AppBarLayout(context);
+        appBar.addView(new View(context), new AppBarLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+        coordinator.addView(appBar, new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(new AppBarLayout.ScrollingViewBehavior());
+        coordinator.addView(createRecyclerView(context), params);
+
+        attach(coordinator);
+
+        new GestureDriver(mLayout)
+                .down(540, 300)
+                .moveTo(540, 400)
+                .moveTo(540, 500)
+                .moveTo(540, 600)
+                .moveTo(540, 700);
+
+        assertEquals(200, coordinator.getTranslationY(), 0.5f);
+    }
+
+    @Test
+    public void gestureTiming_isRecordedPerGesture() {
+        View child = attach(createRecyclerView(mActivity));
+        GestureDriver driver = new GestureDriver(mLayout);
+        for (int i = 0; i < 20; i++) {
+            child.setTranslationY(0);
+            long start = System.nanoTime();
+            driver.down(540, 300).dragBy(400, 10).up();
+            long wall = System.nanoTime() - start;
+
+            assertEquals(12, driver.getLastGestureEvents());
+            assertTrue(driver.getLastGestureNanos() > 0);
+            assertTrue(driver.getLastGestureNanos() <= wall);
+        }
+        long last = driver.getLastGestureNanos();
+        child.setTranslationY(0);
+        long start = System.nanoTime();
+
+        driver.down(540, 300);
+
+        assertEquals(last, driver.getLastGestureNanos());
+        assertEquals(12, driver.getLastGestureEvents());
+
+        driver.up();
+        long wall = System.nanoTime() - start;
+
+        assertEquals(2, driver.getLastGestureEvents());
+        assertTrue(driver.getLastGestureNanos() > 0);
+        assertTrue(driver.getLastGestureNanos() <= wall);
+    }
+
+    private <T extends View> T attach(T child) {
+        mLayout = new NestedTouchScrollingLayout(mActivity);
+        mLayout.addView(child, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mRoot.addView(mLayout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        relayout();
+
+        mLayout.registerNestScrollChildCallback(new NestedTouchScrollingLayout.INestChildScrollChange() {
+            @Override
+            public void onNestChildScrollChange(float deltaY) {
+                mCallbacks.add("change");
+            }
+
+            @Override
+            public void onNestChildScrollRelease(float deltaY, int velocityY) {
+                mCallbacks.add("release");
+            }
+
+            @Override
+            public void onFingerUp(float velocityY) {
+                mCallbacks.add("fingerUp");
+            }
+
+            @Override
+            public void onNestChildHorizationScroll(MotionEvent event, float deltaX, float deltaY) {
+                mCallbacks.add("horizontal");
+            }
+        });
+        return child;
+    }
+
+    private DeferredInflater attachLazy(NestedTouchScrollingLayout.OnContentInflatedListener listener) {
+        DeferredInflater inflater = new DeferredInflater();
+        mLayout = new NestedTouchScrollingLayout(mActivity);
+        mLayout.setContentInflater(inflater);
+        mLayout.setLazyContent(0, listener);
+        mRoot.addView(mLayout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        relayout();
+        return inflater;
+    }
+
+    private static RecyclerView createRecyclerView(Context context) {
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(new CountingAdapter());
+        return recyclerView;
+    }
+
+    /**
+     * 记下 inflate 请求，由测试决定何时以给定 View 完成
+     */
+    static class DeferredInflater implements NestedTouchScrollingLayout.ContentInflater {
+
+        private int mLayoutRes;
+        private ViewGroup mParent;
+        private AsyncLayoutInflater.OnInflateFinishedListener mListener;
+
+        @Override
+        public void inflate(int layoutRes, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener listener) {
+            mLayoutRes = layoutRes;
+            mParent = parent;
+            mListener = listener;
+        }
+
+        boolean isPending() {
+            return mListener != null;
+        }
+
+        void finish(View content) {
+            AsyncLayoutInflater.OnInflateFinishedListener listener = mListener;
+            mListener = null;
+            content.setLayoutParams(new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            listener.onInflateFinished(content, mLayoutRes, mParent);
+        }
+    }
+
+    static class CountingAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        int binds;
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            TextView view = new TextView(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            binds++;
+            ((TextView) holder.itemView).setText(String.valueOf(position));
+        }
+
+        @Override
+        public int getItemCount() {
+            return 50;
+        }
+    }
+
+    static class ScrollableStubView extends View {
+
+        boolean canScrollUp;
+        boolean canScrollDown;
+        final List<Integer> actions = new ArrayList<>();
+
+        ScrollableStubView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean canScrollVertically(int direction) {
+            return direction < 0 ? canScrollUp : canScrollDown;
+        }
+
+        @Override
+        public boolean dispatchTouchEvent(MotionEvent event) {
+            actions.add(event.getActionMasked());
+            return true;
+        }
+    }
+
+    private void relayout() {
+        mRoot.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRoot.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    static class StubWebView extends WebView {
+
+        int contentHeight;
+
+        StubWebView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int getContentHeight() {
+            return contentHeight;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public float getScale() {
+            return 1f;
+        }
+    }
+
+    static class RecordingFrameLayout extends FrameLayout {
+
+        int disallowRequests;
+
+        RecordingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+            if (disallowIntercept) {
+                disallowRequests++;
+            }
+            super.requestDisallowInterceptTouchEvent(disallowIntercept);
+        }
+    }
+}
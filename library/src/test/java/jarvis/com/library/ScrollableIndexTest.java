@@ -0,0 +1,170 @@
+package jarvis.com.library;
+
+import android.app.Activity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.HorizontalScrollView;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScrollableIndexTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1000;
+
+    private Activity mActivity;
+    private ScrollView mScrollView;
+    private HorizontalScrollView mHorizontal;
+    private RecyclerView mRecyclerView;
+    private LinearLayout mContent;
+    private final ScrollableIndex mIndex = new ScrollableIndex();
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mScrollView = new ScrollView(mActivity);
+        LinearLayout content = new LinearLayout(mActivity);
+        mContent = content;
+        content.setOrientation(LinearLayout.VERTICAL);
+        content.addView(new View(mActivity), new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 600));
+
+        mHorizontal = new HorizontalScrollView(mActivity);
+        mHorizontal.addView(new View(mActivity), new ViewGroup.LayoutParams(WIDTH * 3, 300));
+        content.addView(mHorizontal, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 300));
+
+        mRecyclerView = new RecyclerView(mActivity);
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(mActivity, LinearLayoutManager.HORIZONTAL, false));
+        content.addView(mRecyclerView, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 300));
+
+        content.addView(new View(mActivity), new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 2000));
+        mScrollView.addView(content);
+        mActivity.setContentView(mScrollView);
+        mScrollView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mScrollView.layout(0, 0, WIDTH, HEIGHT);
+        mIndex.rebuild(mScrollView);
+    }
+
+    @Test
+    public void scrolledAncestor_refreshesBounds_withoutRebuild() {
+        int horizontal = indexOf(mHorizontal);
+        assertTrue(mIndex.contains(horizontal, 540, 700));
+
+        mScrollView.scrollTo(0, 400);
+        mIndex.refreshBounds();
+
+        horizontal = indexOf(mHorizontal);
+        assertFalse(mIndex.isDirty());
+        assertTrue(mIndex.contains(horizontal, 540, 300));
+        assertFalse(mIndex.contains(horizontal, 540, 700));
+    }
+
+    @Test
+    public void scrolledOutOfViewport_isClipped() {
+        mScrollView.scrollTo(0, 1000);
+        mIndex.refreshBounds();
+
+        int horizontal = indexOf(mHorizontal);
+        assertTrue(mIndex.isShownAt(horizontal));
+        assertFalse(mIndex.contains(horizontal, 540, 1));
+    }
+
+    @Test
+    public void goneCandidate_isNotShown_andSortedLast() {
+        mHorizontal.setVisibility(View.GONE);
+        mIndex.refreshBounds();
+
+        int horizontal = indexOf(mHorizontal);
+        assertFalse(mIndex.isShownAt(horizontal));
+        assertEquals(mIndex.size() - 1, horizontal);
+    }
+
+    @Test
+    public void entries_areSortedByTop() {
+        for (int i = 1; i < mIndex.size(); i++) {
+            assertTrue(mIndex.topAt(i - 1) <= mIndex.topAt(i));
+        }
+        assertEquals(mScrollView, mIndex.viewAt(0));
+        assertTrue(indexOf(mHorizontal) < indexOf(mRecyclerView));
+    }
+
+    @Test
+    public void addedSubtree_isIndexedIncrementally() {
+        LinearLayout wrapper = new LinearLayout(mActivity);
+        HorizontalScrollView added = new HorizontalScrollView(mActivity);
+        wrapper.addView(added);
+
+        mContent.addView(wrapper, 0, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+
+        assertFalse(mIndex.isDirty());
+        assertTrue(mIndex.isBoundsDirty());
+        assertTrue(find(added) >= 0);
+
+        HorizontalScrollView nested = new HorizontalScrollView(mActivity);
+        wrapper.addView(nested);
+
+        assertTrue(find(nested) >= 0);
+    }
+
+    @Test
+    public void removedSubtree_isDropped() {
+        int size = mIndex.size();
+
+        mContent.removeView(mHorizontal);
+
+        assertFalse(mIndex.isDirty());
+        assertEquals(-1, find(mHorizontal));
+        assertEquals(size - 1, mIndex.size());
+    }
+
+    @Test
+    public void release_stopsIncrementalUpdates() {
+        mIndex.release();
+
+        mContent.addView(new HorizontalScrollView(mActivity));
+
+        assertTrue(mIndex.isDirty());
+        assertEquals(0, mIndex.size());
+    }
+
+    @Test
+    public void recyclerViewAxes_followLayoutManager() {
+        int recycler = indexOf(mRecyclerView);
+        assertTrue(mIndex.hasAxis(recycler, ScrollableIndex.AXIS_HORIZONTAL));
+
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(mActivity));
+
+        assertTrue(mIndex.hasAxis(recycler, ScrollableIndex.AXIS_VERTICAL));
+        assertFalse(mIndex.hasAxis(recycler, ScrollableIndex.AXIS_HORIZONTAL));
+    }
+
+    private int find(View view) {
+        for (int i = 0; i < mIndex.size(); i++) {
+            if (mIndex.viewAt(i) == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(View view) {
+        int index = find(view);
+        if (index < 0) {
+            throw new AssertionError(view + " is not indexed");
+        }
+        return index;
+    }
+}
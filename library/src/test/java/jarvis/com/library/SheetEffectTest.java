@@ -0,0 +1,91 @@
+package jarvis.com.library;
+
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class SheetEffectTest {
+
+    private final View mTarget = new View(RuntimeEnvironment.application);
+
+    @Test
+    public void offGridKeyframe_isReproducedExactly() {
+        SheetEffect effect = alpha(new float[]{0, 0.3f, 1}, new float[]{0, 1, 0});
+
+        assertEquals(1, effect.valueAt(0.3f), 1e-6f);
+        assertEquals(0.5f, effect.valueAt(0.15f), 1e-6f);
+        assertEquals(0.5f, effect.valueAt(0.65f), 1e-6f);
+    }
+
+    @Test
+    public void denseKeyframes_withinOneCell() {
+        SheetEffect effect = alpha(new float[]{0.5f, 0.501f, 0.502f, 0.503f}, new float[]{0, 1, 0, 1});
+
+        assertEquals(1, effect.valueAt(0.501f), 1e-4f);
+        assertEquals(0, effect.valueAt(0.502f), 1e-4f);
+        assertEquals(0.5f, effect.valueAt(0.5025f), 1e-3f);
+    }
+
+    @Test
+    public void valuesClampOutsideKeyframes() {
+        SheetEffect effect = alpha(new float[]{0.2f, 0.8f}, new float[]{0.25f, 0.75f});
+
+        assertEquals(0.25f, effect.valueAt(-1), 0);
+        assertEquals(0.25f, effect.valueAt(0.1f), 0);
+        assertEquals(0.75f, effect.valueAt(0.9f), 0);
+        assertEquals(0.75f, effect.valueAt(2), 0);
+    }
+
+    @Test
+    public void repeatedFraction_isAStep() {
+        SheetEffect effect = alpha(new float[]{0, 0.5f, 0.5f, 1}, new float[]{0, 0, 1, 1});
+
+        assertEquals(0, effect.valueAt(0.49f), 0);
+        assertEquals(1, effect.valueAt(0.5f), 0);
+        assertEquals(1, effect.valueAt(0.51f), 0);
+    }
+
+    @Test
+    public void singleKeyframe_isConstant() {
+        SheetEffect effect = alpha(new float[]{0.4f}, new float[]{0.6f});
+
+        assertEquals(0.6f, effect.valueAt(0), 0);
+        assertEquals(0.6f, effect.valueAt(1), 0);
+    }
+
+    @Test
+    public void apply_writesProperty() {
+        SheetEffect effect = new SheetEffect(mTarget, NestedTouchScrollingLayout.EffectProperty.SCALE,
+                new float[]{0, 1}, new float[]{0.9f, 1});
+
+        effect.apply(0.5f);
+
+        assertEquals(0.95f, mTarget.getScaleX(), 1e-6f);
+        assertEquals(0.95f, mTarget.getScaleY(), 1e-6f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void descendingFractions_areRejected() {
+        alpha(new float[]{0, 0.6f, 0.5f}, new float[]{0, 1, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedLengths_areRejected() {
+        alpha(new float[]{0, 1}, new float[]{0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyKeyframes_areRejected() {
+        alpha(new float[0], new float[0]);
+    }
+
+    private SheetEffect alpha(float[] fractions, float[] values) {
+        return new SheetEffect(mTarget, NestedTouchScrollingLayout.EffectProperty.ALPHA, fractions, values);
+    }
+}
@@ -0,0 +1,78 @@
+package jarvis.com.library;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class SheetJankMonitorTest {
+
+    private static final long VSYNC = 16666667L;
+
+    private final SheetJankMonitor mMonitor = new SheetJankMonitor();
+
+    @Test
+    public void framesAndJank_attributedToPhaseAtDraw() {
+        mMonitor.setPhase(NestedTouchScrollingLayout.SheetPhase.DRAG);
+        drawAfterTranslation(0);
+        drawAfterTranslation(0);
+        drawAfterTranslation(VSYNC * 2);
+
+        mMonitor.setPhase(NestedTouchScrollingLayout.SheetPhase.SETTLE);
+        drawAfterTranslation(0);
+        drawAfterTranslation(VSYNC * 3);
+
+        mMonitor.setPhase(NestedTouchScrollingLayout.SheetPhase.IDLE);
+        mMonitor.onFrame(System.nanoTime() + VSYNC);
+
+        SheetJankStats stats = mMonitor.snapshot();
+        assertEquals(3, stats.getFrameCount(NestedTouchScrollingLayout.SheetPhase.DRAG));
+        assertEquals(1, stats.getJankFrameCount(NestedTouchScrollingLayout.SheetPhase.DRAG));
+        assertEquals(2, stats.getFrameCount(NestedTouchScrollingLayout.SheetPhase.SETTLE));
+        assertEquals(1, stats.getJankFrameCount(NestedTouchScrollingLayout.SheetPhase.SETTLE));
+        assertEquals(1, stats.getFrameCount(NestedTouchScrollingLayout.SheetPhase.IDLE));
+        assertEquals(0, stats.getJankFrameCount(NestedTouchScrollingLayout.SheetPhase.IDLE));
+    }
+
+    @Test
+    public void windowDrawWithoutTranslation_isNotCounted() {
+        mMonitor.setPhase(NestedTouchScrollingLayout.SheetPhase.DRAG);
+
+        mMonitor.onWindowDraw();
+        mMonitor.onWindowDraw();
+
+        assertEquals(0, mMonitor.snapshot().getFrameCount(NestedTouchScrollingLayout.SheetPhase.DRAG));
+    }
+
+    @Test
+    public void fingerResting_longGap_isNotJank() {
+        mMonitor.setPhase(NestedTouchScrollingLayout.SheetPhase.DRAG);
+        drawAfterTranslation(-VSYNC * 60);
+
+        drawAfterTranslation(0);
+
+        SheetJankStats stats = mMonitor.snapshot();
+        assertEquals(2, stats.getFrameCount(NestedTouchScrollingLayout.SheetPhase.DRAG));
+        assertEquals(0, stats.getJankFrameCount(NestedTouchScrollingLayout.SheetPhase.DRAG));
+    }
+
+    @Test
+    public void sameVsync_isCountedOnce() {
+        long vsync = System.nanoTime();
+        mMonitor.onTranslationChanged();
+        mMonitor.onFrame(vsync);
+        mMonitor.onFrame(vsync);
+
+        assertEquals(1, mMonitor.snapshot().getFrameCount(NestedTouchScrollingLayout.SheetPhase.IDLE));
+    }
+
+    /**
+     * @param delay 位移变化到开始绘制的时间
+     */
+    private void drawAfterTranslation(long delay) {
+        mMonitor.onTranslationChanged();
+        mMonitor.onFrame(System.nanoTime() + delay);
+    }
+}